@@ -0,0 +1,113 @@
+package de.dsm.backend.config;
+
+import de.dsm.backend.services.ContentVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized JSON of hot public endpoints, identity and gzip encoded, keyed by resource and query.
+ * Entries are stamped with the resource's {@link ContentVersions} version, so a write in the owning service
+ * makes them stale and the next request renders them again.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseBytesCache {
+
+    private final JsonMapper jsonMapper;
+    private final ContentVersions contentVersions;
+
+    /** Least recently used first; a full cache evicts one entry instead of starting over. */
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    });
+
+    @Value("${http.response-cache.max-entries:256}")
+    private int maxEntries;
+
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      String resource, String queryKey, Supplier<?> body) throws IOException {
+        var version = contentVersions.current(resource);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        addVary(response, HttpHeaders.ACCEPT_ENCODING);
+
+        if (new ServletWebRequest(request, response).checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return;
+        }
+
+        String key = resource + "?" + queryKey;
+        var entry = entries.get(key);
+        if (entry == null || !entry.version().equals(version)) {
+            entry = render(version, body.get());
+            entries.put(key, entry);
+        }
+
+        byte[] bytes = entry.identity();
+        if (acceptsGzip(request)) {
+            bytes = entry.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private Entry render(ContentVersions.Version version, Object body) {
+        byte[] identity = jsonMapper.writeValueAsBytes(body);
+        var compressed = new ByteArrayOutputStream(identity.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Entry(version, identity, compressed.toByteArray());
+    }
+
+    /**
+     * Adds to the Vary values already set, such as the CORS filter's Origin, instead of replacing them.
+     */
+    private void addVary(HttpServletResponse response, String header) {
+        for (String value : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : value.split(",")) {
+                if (name.trim().equalsIgnoreCase(header) || name.trim().equals("*")) {
+                    return;
+                }
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, header);
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if ("gzip".equalsIgnoreCase(parts[0].trim()) && !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private record Entry(ContentVersions.Version version, byte[] identity, byte[] gzip) {
+    }
+}
@@ -1,21 +1,31 @@
 package de.dsm.backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class S3Config {
     @Value("${storage.s3.endpoint:}")
     private String endpoint;
 
+    @Value("${storage.s3.public-endpoint:${storage.s3.endpoint:}}")
+    private String publicEndpoint;
+
     @Value("${storage.s3.access-key}")
     private String accessKey;
 
@@ -28,18 +38,87 @@ public class S3Config {
     @Value("${storage.s3.region}")
     private String region;
 
+    @Value("${storage.s3.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${storage.s3.connection-ttl:60s}")
+    private Duration connectionTtl;
+
+    @Value("${storage.s3.connection-timeout:5s}")
+    private Duration connectionTimeout;
+
+    @Value("${storage.s3.socket-timeout:30s}")
+    private Duration socketTimeout;
+
+    @Value("${storage.s3.api-call-timeout:2m}")
+    private Duration apiCallTimeout;
+
     @Bean
     public S3Client s3Client() {
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
-
         var builder = S3Client.builder()
                 .endpointOverride(URI.create(endpoint))
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .serviceConfiguration(S3Configuration.builder()
-                        .pathStyleAccessEnabled(true)
-                        .build());
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration())
+                .overrideConfiguration(overrideConfiguration())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeToLive(connectionTtl)
+                        .connectionTimeout(connectionTimeout)
+                        .socketTimeout(socketTimeout));
 
         return builder.build();
     }
+
+    /**
+     * Non-blocking client used for rendition uploads when {@code storage.s3.async.enabled} is set.
+     * Requests are multiplexed over a Netty event loop instead of holding a thread per upload.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "storage.s3.async.enabled", havingValue = "true")
+    public S3AsyncClient s3AsyncClient() {
+        return S3AsyncClient.builder()
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration())
+                .overrideConfiguration(overrideConfiguration())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeToLive(connectionTtl)
+                        .connectionTimeout(connectionTimeout)
+                        .readTimeout(socketTimeout)
+                        .writeTimeout(socketTimeout))
+                .build();
+    }
+
+    /**
+     * Signs URLs against the endpoint browsers can reach, which differs from
+     * {@code storage.s3.endpoint} when the backend talks to S3 over an internal network.
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        return S3Presigner.builder()
+                .endpointOverride(URI.create(publicEndpoint))
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(serviceConfiguration())
+                .build();
+    }
+
+    private StaticCredentialsProvider credentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+
+    private S3Configuration serviceConfiguration() {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(true)
+                .build();
+    }
+
+    private ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(apiCallTimeout)
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package de.dsm.backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -42,10 +43,14 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
+                // Async dispatches continue an already authorized request, e.g. a notification stream.
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/api/contact/inbox").authenticated()
                 .requestMatchers("/api/contact/**").permitAll()
                 .requestMatchers("/api/events/**").permitAll()
                 .requestMatchers("/api/galleries/**").permitAll()
+                .requestMatchers("/api/search").permitAll()
                 .requestMatchers("/api/reenactment/categories").authenticated()
                 .requestMatchers("/api/reenactment/blocks/**").permitAll()
                 .requestMatchers("/api/reenactment/**").permitAll()
@@ -0,0 +1,66 @@
+package de.dsm.backend.config.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Second-level cache regions kept in bounded, expiring in-process maps.
+ * Entity and query result regions are limited by {@code hibernate.cache.dsm.max-entries} and
+ * {@code hibernate.cache.dsm.ttl}; the update timestamps region is never evicted, since a lost
+ * timestamp would let stale query results pass as fresh.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES = "hibernate.cache.dsm.max-entries";
+    public static final String TTL = "hibernate.cache.dsm.ttl";
+
+    private int maxEntries = 1000;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configuredMaxEntries = configValues.get(MAX_ENTRIES);
+        if (configuredMaxEntries != null) {
+            maxEntries = Integer.parseInt(configuredMaxEntries.toString().trim());
+        }
+        Object configuredTtl = configValues.get(TTL);
+        if (configuredTtl != null) {
+            ttl = DurationStyle.detectAndParse(configuredTtl.toString().trim());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorageAccess(maxEntries, ttl);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(maxEntries, ttl);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(Integer.MAX_VALUE, Duration.ZERO);
+    }
+}
@@ -0,0 +1,27 @@
+package de.dsm.backend.controllers;
+
+import de.dsm.backend.models.dto.CacheRegionStatsResponse;
+import de.dsm.backend.services.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache", description = "Second-level cache statistics")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Cache statistics", description = "Returns hit, miss and put counts per second-level cache region")
+    public List<CacheRegionStatsResponse> getStatistics() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+}
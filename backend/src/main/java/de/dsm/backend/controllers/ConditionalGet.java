@@ -0,0 +1,34 @@
+package de.dsm.backend.controllers;
+
+import de.dsm.backend.services.ContentVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Answers 304 when the client's validators match the current version, without calling {@code body}.
+     * Otherwise returns the body with the version's ETag and Last-Modified.
+     */
+    static <T> ResponseEntity<T> ifModified(WebRequest request, ContentVersions.Version version, Supplier<T> body) {
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(version.etag())
+                    .lastModified(version.lastModified())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(version.etag())
+                .lastModified(version.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
+}
@@ -1,10 +1,13 @@
 package de.dsm.backend.controllers;
 
+import de.dsm.backend.models.dto.ContactCursorPageResponse;
 import de.dsm.backend.models.dto.ContactRequest;
 import de.dsm.backend.models.dto.ContactResponse;
 import de.dsm.backend.services.ContactService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -55,6 +59,15 @@ public class ContactController {
         return contactService.getContacts(pageable);
     }
 
+    @GetMapping("/inbox")
+    public ContactCursorPageResponse getInbox(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(value = "unread", defaultValue = "false") boolean unreadOnly
+    ) {
+        return contactService.getInbox(after, size, unreadOnly);
+    }
+
     @PatchMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public long readMessage(@PathVariable UUID id) {
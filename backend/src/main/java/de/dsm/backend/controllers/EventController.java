@@ -1,13 +1,19 @@
 package de.dsm.backend.controllers;
 
+import de.dsm.backend.config.ResponseBytesCache;
 import de.dsm.backend.models.dto.EventRequest;
 import de.dsm.backend.models.dto.EventResponse;
+import de.dsm.backend.services.ContentVersions;
 import de.dsm.backend.services.EventService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
@@ -23,6 +29,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -33,6 +41,7 @@ import java.util.UUID;
 public class EventController {
 
     private final EventService eventService;
+    private final ResponseBytesCache responseBytesCache;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
@@ -52,9 +61,32 @@ public class EventController {
         return eventService.createEvent(request);
     }
 
+    @GetMapping(params = "after")
+    public void getEventsAfter(
+            @RequestParam("after") String after,
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            HttpServletRequest request, HttpServletResponse response
+    ) throws IOException {
+        responseBytesCache.write(request, response, ContentVersions.EVENTS, "after:" + after + ":" + size,
+                () -> eventService.getEventsAfter(after, size));
+    }
+
     @GetMapping
-    public Page<EventResponse> getEvents(Pageable pageable) {
-        return eventService.getEvents(pageable);
+    public void getEvents(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "upcoming", defaultValue = "false") boolean upcoming,
+            Pageable pageable, HttpServletRequest request, HttpServletResponse response
+    ) throws IOException {
+        String queryKey = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        if (from == null && to == null && !upcoming) {
+            responseBytesCache.write(request, response, ContentVersions.EVENTS, queryKey,
+                    () -> eventService.getEvents(pageable));
+            return;
+        }
+        String rangeKey = "range:" + from + ":" + to + ":" + (upcoming ? eventService.today() : "") + ":" + queryKey;
+        responseBytesCache.write(request, response, ContentVersions.EVENTS, rangeKey,
+                () -> eventService.getEventsInRange(from, to, upcoming, pageable));
     }
 
     @GetMapping("/{id}")
@@ -1,14 +1,19 @@
 package de.dsm.backend.controllers;
 
+import de.dsm.backend.config.ResponseBytesCache;
 import de.dsm.backend.models.dto.GalleryRequest;
 import de.dsm.backend.models.dto.GalleryResponse;
 import de.dsm.backend.models.dto.PhotoResponse;
+import de.dsm.backend.services.ContentVersions;
 import de.dsm.backend.services.GalleryService;
 import de.dsm.backend.services.PhotoService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,7 +24,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,6 +38,8 @@ import java.util.UUID;
 public class GalleryController {
     private final GalleryService galleryService;
     private final PhotoService photoService;
+    private final ContentVersions contentVersions;
+    private final ResponseBytesCache responseBytesCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,8 +48,9 @@ public class GalleryController {
     }
 
     @GetMapping
-    public List<GalleryResponse> getGalleries() {
-        return galleryService.getAllPublishedGalleries();
+    public void getGalleries(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseBytesCache.write(request, response, ContentVersions.GALLERIES, "published",
+                galleryService::getAllPublishedGalleries);
     }
 
     @GetMapping("/all")
@@ -49,8 +59,9 @@ public class GalleryController {
     }
 
     @GetMapping("/{id}")
-    public List<PhotoResponse> getGalleryPhotos(@PathVariable UUID id) {
-        return photoService.getPhotos(id);
+    public ResponseEntity<List<PhotoResponse>> getGalleryPhotos(@PathVariable UUID id, WebRequest request) {
+        return ConditionalGet.ifModified(request, contentVersions.current(ContentVersions.gallery(id)),
+                () -> photoService.getPhotos(id));
     }
 
     @PatchMapping("/{id}")
@@ -0,0 +1,25 @@
+package de.dsm.backend.controllers;
+
+import de.dsm.backend.models.dto.MailTransportStatsResponse;
+import de.dsm.backend.services.MailTransportPool;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/mail")
+@RequiredArgsConstructor
+@Tag(name = "Mail", description = "Outgoing mail statistics")
+public class MailController {
+
+    private final MailTransportPool mailTransportPool;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Mail transport statistics", description = "Returns sent and failed message counts and how many messages each SMTP connection carried")
+    public MailTransportStatsResponse getStatistics() {
+        return mailTransportPool.getStatistics();
+    }
+}
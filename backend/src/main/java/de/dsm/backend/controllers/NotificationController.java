@@ -0,0 +1,33 @@
+package de.dsm.backend.controllers;
+
+import de.dsm.backend.models.dto.UnreadCountNotification;
+import de.dsm.backend.services.ContactService;
+import de.dsm.backend.services.NotificationBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notifications", description = "Admin notification stream")
+public class NotificationController {
+
+    private final NotificationBroadcaster notificationBroadcaster;
+    private final ContactService contactService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Notification stream",
+            description = "Server-sent events: unread-count on connect, then contact-created and photo-processed")
+    public SseEmitter stream() {
+        SseEmitter emitter = notificationBroadcaster.subscribe();
+        notificationBroadcaster.send(emitter, NotificationBroadcaster.UNREAD_COUNT,
+                new UnreadCountNotification(contactService.getUnreadCount()));
+        return emitter;
+    }
+}
@@ -1,9 +1,14 @@
 package de.dsm.backend.controllers;
 
+import de.dsm.backend.models.dto.PhotoFinalizeRequest;
 import de.dsm.backend.models.dto.PhotoResponse;
+import de.dsm.backend.models.dto.PhotoUploadResult;
+import de.dsm.backend.models.dto.PhotoUploadUrlRequest;
+import de.dsm.backend.models.dto.PhotoUploadUrlResponse;
 import de.dsm.backend.services.PhotoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -12,12 +17,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -31,7 +39,7 @@ public class PhotoController {
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "Upload a photo", description = "Uploads a photo file to S3 and saves metadata to database")
+    @Operation(summary = "Upload a photo", description = "Uploads a photo file to S3, saves metadata to database and queues thumbnail generation")
     public PhotoResponse uploadPhoto(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "caption", required = false) String caption,
@@ -41,6 +49,34 @@ public class PhotoController {
         return photoService.uploadFile(file, caption, altText, galleryId);
     }
 
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload several photos", description = "Uploads many photo files for one gallery concurrently and reports the result per file")
+    public List<PhotoUploadResult> uploadPhotos(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "galleryId", required = false) UUID galleryId
+    ) {
+        return photoService.uploadFiles(files, galleryId);
+    }
+
+    @PostMapping("/upload-url")
+    @Operation(summary = "Request a direct upload URL", description = "Returns a presigned S3 PUT URL the client uploads the original to")
+    public PhotoUploadUrlResponse createUploadUrl(@Valid @RequestBody PhotoUploadUrlRequest request) {
+        return photoService.createUploadUrl(request);
+    }
+
+    @PostMapping("/finalize")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Finalize a direct upload", description = "Registers a photo uploaded through a presigned URL and queues thumbnail generation")
+    public PhotoResponse finalizeUpload(@Valid @RequestBody PhotoFinalizeRequest request) {
+        return photoService.finalizeUpload(request);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a photo", description = "Returns photo metadata including its processing status")
+    public PhotoResponse getPhoto(@PathVariable UUID id) {
+        return photoService.getPhoto(id);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete a photo", description = "Deletes a photo from S3 and database")
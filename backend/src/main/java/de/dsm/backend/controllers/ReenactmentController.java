@@ -6,12 +6,15 @@ import de.dsm.backend.models.dto.BlockResponse;
 import de.dsm.backend.models.dto.BlocksByCategoryResponse;
 import de.dsm.backend.models.dto.CategoryCreateRequest;
 import de.dsm.backend.models.dto.CategoryResponse;
+import de.dsm.backend.services.ContentVersions;
 import de.dsm.backend.services.ReenactmentService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,11 +26,13 @@ import java.util.UUID;
 public class ReenactmentController {
 
     private final ReenactmentService reenactmentService;
+    private final ContentVersions contentVersions;
 
     /** Blocks grouped by category */
     @GetMapping
-    public List<BlocksByCategoryResponse> getBlocksGroupedByCategory() {
-        return reenactmentService.getBlocksGroupedByCategory();
+    public ResponseEntity<List<BlocksByCategoryResponse>> getBlocksGroupedByCategory(WebRequest request) {
+        return ConditionalGet.ifModified(request, contentVersions.current(ContentVersions.REENACTMENT),
+                reenactmentService::getBlocksGroupedByCategory);
     }
 
     @GetMapping("/categories")
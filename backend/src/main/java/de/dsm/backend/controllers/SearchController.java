@@ -0,0 +1,32 @@
+package de.dsm.backend.controllers;
+
+import de.dsm.backend.models.dto.SearchResultResponse;
+import de.dsm.backend.services.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Full-text search over public content")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(summary = "Search", description = "Ranked matches from events, published galleries, reenactment blocks and photo captions")
+    public Page<SearchResultResponse> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "lang", defaultValue = "de") String lang,
+            Pageable pageable
+    ) {
+        return searchService.search(query, lang, pageable);
+    }
+}
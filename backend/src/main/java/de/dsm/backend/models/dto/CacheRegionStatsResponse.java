@@ -0,0 +1,4 @@
+package de.dsm.backend.models.dto;
+
+public record CacheRegionStatsResponse(String region, long hits, long misses, long puts, double hitRatio) {
+}
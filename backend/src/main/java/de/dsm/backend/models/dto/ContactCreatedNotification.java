@@ -0,0 +1,10 @@
+package de.dsm.backend.models.dto;
+
+import java.util.UUID;
+
+public record ContactCreatedNotification(
+        UUID id,
+        String name,
+        long unreadCount
+) {
+}
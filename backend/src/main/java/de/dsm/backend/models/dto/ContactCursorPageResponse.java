@@ -0,0 +1,9 @@
+package de.dsm.backend.models.dto;
+
+import java.util.List;
+
+public record ContactCursorPageResponse(
+        List<ContactResponse> items,
+        String next
+) {
+}
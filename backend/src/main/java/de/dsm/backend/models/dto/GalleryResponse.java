@@ -9,6 +9,8 @@ public record GalleryResponse(
     String description,
     String image,
     Boolean published,
-    LocalDateTime createdAt
+    LocalDateTime createdAt,
+    Long photoCount,
+    String coverUrl
 ) {
 }
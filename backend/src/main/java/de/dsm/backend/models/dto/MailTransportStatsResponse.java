@@ -0,0 +1,11 @@
+package de.dsm.backend.models.dto;
+
+public record MailTransportStatsResponse(
+        long messagesSent,
+        long messagesFailed,
+        long batches,
+        long connectionsOpened,
+        double messagesPerConnection,
+        boolean connected
+) {
+}
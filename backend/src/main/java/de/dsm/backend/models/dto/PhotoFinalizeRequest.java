@@ -0,0 +1,8 @@
+package de.dsm.backend.models.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.UUID;
+
+public record PhotoFinalizeRequest(@NotBlank String objectKey, @NotBlank String fileName, String caption, String altText, UUID galleryId) {
+}
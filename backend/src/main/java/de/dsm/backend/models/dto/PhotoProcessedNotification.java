@@ -0,0 +1,11 @@
+package de.dsm.backend.models.dto;
+
+import de.dsm.backend.models.entity.PhotoStatus;
+
+import java.util.UUID;
+
+public record PhotoProcessedNotification(
+        UUID photoId,
+        PhotoStatus status
+) {
+}
@@ -1,5 +1,6 @@
 package de.dsm.backend.models.dto;
 
+import de.dsm.backend.models.entity.PhotoStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,9 +25,11 @@ public class PhotoResponse {
     private Integer height;
     private Map<String, String> versions;
     private Map<String, String> versionKeys; 
+    private String srcset;
     private UUID galleryId;
     private String caption;
     private String altText;
     private Integer sortOrder;
+    private PhotoStatus status;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,16 @@
+package de.dsm.backend.models.dto;
+
+public record PhotoUploadResult(
+        String fileName,
+        boolean success,
+        PhotoResponse photo,
+        String error
+) {
+    public static PhotoUploadResult uploaded(String fileName, PhotoResponse photo) {
+        return new PhotoUploadResult(fileName, true, photo, null);
+    }
+
+    public static PhotoUploadResult failed(String fileName, String error) {
+        return new PhotoUploadResult(fileName, false, null, error);
+    }
+}
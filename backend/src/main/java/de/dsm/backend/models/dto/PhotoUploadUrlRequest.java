@@ -0,0 +1,7 @@
+package de.dsm.backend.models.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record PhotoUploadUrlRequest(@NotBlank String fileName, @NotBlank @Pattern(regexp = "image/.+") String contentType) {
+}
@@ -0,0 +1,7 @@
+package de.dsm.backend.models.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PhotoUploadUrlResponse(String objectKey, String uploadUrl, Map<String, String> headers, Instant expiresAt) {
+}
@@ -0,0 +1,13 @@
+package de.dsm.backend.models.dto;
+
+import java.util.UUID;
+
+public record SearchResultResponse(
+        String type,
+        UUID id,
+        UUID parentId,
+        String title,
+        String snippet,
+        double rank
+) {
+}
@@ -0,0 +1,6 @@
+package de.dsm.backend.models.dto;
+
+public record UnreadCountNotification(
+        long unreadCount
+) {
+}
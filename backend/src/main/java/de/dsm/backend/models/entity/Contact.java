@@ -32,6 +32,7 @@ public class Contact {
     @Column(columnDefinition = "TEXT")
     private String message;
     private LocalDateTime createdAt;
+    @Column(name = "is_read")
     private boolean read;
     private LocalDateTime readAt;
 
@@ -45,11 +46,4 @@ public class Contact {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
-
-    public void markAsRead() {
-        if (!this.read) {
-            this.read = true;
-            this.readAt = LocalDateTime.now();
-        }
-    }
 }
@@ -0,0 +1,6 @@
+package de.dsm.backend.models.entity;
+
+public enum ContactMailStatus {
+    PENDING,
+    FAILED
+}
@@ -2,6 +2,8 @@ package de.dsm.backend.models.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -31,10 +33,10 @@ import java.util.UUID;
 public class Photo {
     @Id
     @GeneratedValue
+    @EqualsAndHashCode.Include
     private UUID id;
 
-    @EqualsAndHashCode.Include
-    @Column(name = "object_key", length = 500, unique = true, nullable = false)
+    @Column(name = "object_key", length = 500, nullable = false)
     private String objectKey;
 
     @Column(nullable = false)
@@ -49,6 +51,9 @@ public class Photo {
     @Column(name = "size_bytes")
     private Long sizeBytes;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     private Integer width;
     private Integer height;
 
@@ -71,6 +76,11 @@ public class Photo {
     @Builder.Default
     private Integer sortOrder = 0;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    @Builder.Default
+    private PhotoStatus status = PhotoStatus.READY;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
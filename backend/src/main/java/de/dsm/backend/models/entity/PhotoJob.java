@@ -0,0 +1,84 @@
+package de.dsm.backend.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "photo_jobs")
+public class PhotoJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "photo_id", nullable = false)
+    private UUID photoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private PhotoJobStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public PhotoJob(UUID photoId) {
+        this.photoId = photoId;
+        this.status = PhotoJobStatus.PENDING;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+
+    public void claim(LocalDateTime now) {
+        this.status = PhotoJobStatus.RUNNING;
+        this.lockedAt = now;
+        this.attempts++;
+    }
+
+    public void retryAt(LocalDateTime nextAttemptAt, String error) {
+        this.status = PhotoJobStatus.PENDING;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lockedAt = null;
+        this.lastError = error;
+    }
+
+    public void fail(String error) {
+        this.status = PhotoJobStatus.FAILED;
+        this.lockedAt = null;
+        this.lastError = error;
+    }
+}
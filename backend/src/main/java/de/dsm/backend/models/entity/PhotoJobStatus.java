@@ -0,0 +1,7 @@
+package de.dsm.backend.models.entity;
+
+public enum PhotoJobStatus {
+    PENDING,
+    RUNNING,
+    FAILED
+}
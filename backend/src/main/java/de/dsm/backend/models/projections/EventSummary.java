@@ -0,0 +1,21 @@
+package de.dsm.backend.models.projections;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Event row for list views; {@code excerpt} holds at most {@link #EXCERPT_LENGTH} characters of the text.
+ */
+public record EventSummary(
+        UUID id,
+        String title,
+        String excerpt,
+        String image,
+        String link,
+        LocalDate date,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+    public static final int EXCERPT_LENGTH = 300;
+}
@@ -0,0 +1,15 @@
+package de.dsm.backend.models.projections;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface GallerySummary {
+    UUID getId();
+    String getTitle();
+    String getDescription();
+    String getImage();
+    Boolean getPublished();
+    LocalDateTime getCreatedAt();
+    Long getPhotoCount();
+    String getCoverKey();
+}
@@ -0,0 +1,16 @@
+package de.dsm.backend.models.projections;
+
+import java.util.UUID;
+
+/**
+ * One ranked search match. {@code parentId} is the category of a block or the gallery of a photo.
+ */
+public record SearchHit(
+        String type,
+        UUID id,
+        UUID parentId,
+        String title,
+        String snippet,
+        double rank
+) {
+}
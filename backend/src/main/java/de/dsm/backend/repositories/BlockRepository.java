@@ -1,12 +1,16 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.Block;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface BlockRepository extends JpaRepository<Block, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Block> findAllByOrderBySortOrderAsc();
     List<Block> findAllByCategoryIdOrderBySortOrderAsc(UUID categoryId);
     List<Block> findAllByCategoryIdIsNullOrderBySortOrderAsc();
@@ -0,0 +1,21 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.entity.ContactMailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ContactMailOutboxRepository extends JpaRepository<ContactMailOutbox, UUID> {
+    @Query(value = """
+            SELECT * FROM contact_mail_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ContactMailOutbox> findDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,10 +1,46 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.Contact;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface ContactRepository extends JpaRepository<Contact, UUID> {
     long countByReadFalse();
+
+    // Conditional writes report whether an unread message was affected, so concurrent
+    // requests cannot both count the same message.
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Contact c SET c.read = true, c.readAt = :readAt WHERE c.id = :id AND c.read = false")
+    int markRead(@Param("id") UUID id, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Contact c WHERE c.id = :id AND c.read = false")
+    int deleteUnreadById(@Param("id") UUID id);
+
+    // Inbox pages in (created_at desc, id desc) order. The unread variants repeat the partial
+    // index predicate so they are served by idx_contacts_unread_created_at_id.
+
+    @Query("SELECT c FROM Contact c ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contact> findInbox(Limit limit);
+
+    @Query("SELECT c FROM Contact c WHERE (c.createdAt, c.id) < (:createdAt, :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contact> findInboxAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT c FROM Contact c WHERE c.read = false ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contact> findUnreadInbox(Limit limit);
+
+    @Query("SELECT c FROM Contact c WHERE c.read = false AND (c.createdAt, c.id) < (:createdAt, :id) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Contact> findUnreadInboxAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
 }
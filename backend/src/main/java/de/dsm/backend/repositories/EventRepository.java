@@ -1,14 +1,50 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.Event;
+import de.dsm.backend.models.projections.EventSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface EventRepository extends JpaRepository<Event, UUID> {
-    @Query("SELECT e FROM Event e ORDER BY e.date DESC NULLS LAST")
-    Page<Event> findAllOrderByDateDesc(Pageable pageable);
+    String SUMMARY = "SELECT new de.dsm.backend.models.projections.EventSummary(e.id, e.title, "
+            + "SUBSTRING(e.text, 1, " + EventSummary.EXCERPT_LENGTH + "), e.image, e.link, e.date, e.createdAt, e.updatedAt) "
+            + "FROM Event e ";
+
+    @Query(value = SUMMARY + "ORDER BY e.date DESC NULLS LAST",
+            countQuery = "SELECT COUNT(e) FROM Event e")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<EventSummary> findSummariesOrderByDateDesc(Pageable pageable);
+
+    @Query(value = SUMMARY + "WHERE e.date BETWEEN :from AND :to ORDER BY e.date ASC NULLS FIRST, e.id ASC",
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.date BETWEEN :from AND :to")
+    Page<EventSummary> findSummariesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    // Keyset pages in (date desc nulls last, id desc) order, all served by idx_events_date_id,
+    // which also backs the date range scan above (read backwards as date asc nulls first).
+    // Dated events come first; once they run out the undated tail is read by id alone.
+    // Every ORDER BY spells out the index's exact ordering, nulls placement included,
+    // so the planner walks the index instead of sorting.
+
+    @Query(SUMMARY + "ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findFirstKeysetPage(Limit limit);
+
+    @Query(SUMMARY + "WHERE (e.date, e.id) < (:date, :id) ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findDatedAfter(@Param("date") LocalDate date, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY + "WHERE e.date IS NULL ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findUndated(Limit limit);
+
+    @Query(SUMMARY + "WHERE e.date IS NULL AND e.id < :id ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<EventSummary> findUndatedAfter(@Param("id") UUID id, Limit limit);
 }
@@ -1,13 +1,33 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.Gallery;
+import de.dsm.backend.models.projections.GallerySummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface GalleryRepository extends JpaRepository<Gallery, UUID> {
-    @Query("SELECT g FROM Gallery g WHERE g.published = true ORDER BY g.createdAt DESC")
-    List<Gallery> findByIs_publishedTrueOrderByCreatedAtDesc();
+    /**
+     * Galleries newest first, each with its number of ready photos and the thumbnail key
+     * (or original key) of the first ready photo in sort order, in a single statement.
+     */
+    @Query(value = """
+            SELECT g.id AS "id", g.title AS "title", g.description AS "description", g.image AS "image",
+                   g.is_published AS "published", g.created_at AS "createdAt",
+                   COALESCE(p.photo_count, 0) AS "photoCount", p.cover_key AS "coverKey"
+            FROM galleries g
+            LEFT JOIN LATERAL (
+                SELECT COUNT(*) AS photo_count,
+                       (ARRAY_AGG(COALESCE(ph.versions ->> 'thumbnail', ph.object_key)
+                                  ORDER BY ph.sort_order, ph.created_at))[1] AS cover_key
+                FROM photos ph
+                WHERE ph.gallery_id = g.id AND ph.status = 'READY'
+            ) p ON TRUE
+            WHERE g.is_published OR NOT :publishedOnly
+            ORDER BY g.created_at DESC
+            """, nativeQuery = true)
+    List<GallerySummary> findSummaries(@Param("publishedOnly") boolean publishedOnly);
 }
@@ -0,0 +1,67 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.entity.PhotoContent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PhotoContentRepository extends JpaRepository<PhotoContent, String> {
+    @Modifying
+    @Query(value = """
+            INSERT INTO photo_contents (content_hash, ref_count, created_at)
+            VALUES (:contentHash, 1, CURRENT_TIMESTAMP)
+            ON CONFLICT (content_hash) DO UPDATE SET ref_count = photo_contents.ref_count + 1
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "photo_contents"))
+    void acquire(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE PhotoContent c SET c.refCount = c.refCount - 1 WHERE c.contentHash = :contentHash")
+    void release(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query(value = """
+            UPDATE photo_contents c SET ref_count = c.ref_count - p.refs
+            FROM (SELECT content_hash, COUNT(*) AS refs FROM photos
+                  WHERE gallery_id = :galleryId AND content_hash IS NOT NULL
+                  GROUP BY content_hash) p
+            WHERE c.content_hash = p.content_hash
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "photo_contents"))
+    void releaseByGalleryId(@Param("galleryId") UUID galleryId);
+
+    /**
+     * Serializes reference changes and object deletions for one hash until the transaction ends.
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock(hashtext(:contentHash)) AS TEXT)", nativeQuery = true)
+    String lock(@Param("contentHash") String contentHash);
+
+    /**
+     * Whether the content is still referenced and not queued for deletion, so its objects can be shared.
+     * Only meaningful while holding {@link #lock}.
+     */
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM photo_contents c
+                           WHERE c.content_hash = :contentHash AND c.ref_count > 0
+                             AND NOT EXISTS (SELECT 1 FROM storage_deletions d WHERE d.content_hash = :contentHash))
+            """, nativeQuery = true)
+    boolean isLive(@Param("contentHash") String contentHash);
+
+    @Query("SELECT c.contentHash FROM PhotoContent c WHERE c.contentHash IN :contentHashes")
+    List<String> findExisting(@Param("contentHashes") Collection<String> contentHashes);
+
+    @Query("SELECT c.refCount FROM PhotoContent c WHERE c.contentHash = :contentHash")
+    Optional<Integer> findRefCount(@Param("contentHash") String contentHash);
+
+    @Query("SELECT c.contentHash FROM PhotoContent c WHERE c.contentHash IN :contentHashes AND c.refCount <= 0")
+    List<String> findUnreferenced(@Param("contentHashes") Collection<String> contentHashes);
+}
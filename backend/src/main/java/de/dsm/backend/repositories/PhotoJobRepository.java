@@ -0,0 +1,24 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.entity.PhotoJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface PhotoJobRepository extends JpaRepository<PhotoJob, UUID> {
+    @Query(value = """
+            SELECT * FROM photo_jobs
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'RUNNING' AND locked_at < :staleBefore)
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<PhotoJob> findClaimable(@Param("now") LocalDateTime now,
+                                 @Param("staleBefore") LocalDateTime staleBefore,
+                                 @Param("limit") int limit);
+}
@@ -1,11 +1,24 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.Photo;
+import de.dsm.backend.models.entity.PhotoStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface PhotoRepository extends JpaRepository<Photo, UUID> {
     List<Photo> findByGalleryIdOrderBySortOrderAsc(UUID galleryId);
+    Optional<Photo> findFirstByContentHash(String contentHash);
+    Optional<Photo> findFirstByContentHashAndStatus(String contentHash, PhotoStatus status);
+    List<Photo> findByContentHash(String contentHash);
+    boolean existsByObjectKey(String objectKey);
+
+    @Modifying
+    @Query("DELETE FROM Photo p WHERE p.galleryId = :galleryId")
+    void deleteByGalleryId(@Param("galleryId") UUID galleryId);
 }
@@ -1,13 +1,17 @@
 package de.dsm.backend.repositories;
 
 import de.dsm.backend.models.entity.ReenactmentCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ReenactmentCategoryRepository extends JpaRepository<ReenactmentCategory, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ReenactmentCategory> findAllByOrderBySortOrderAsc();
     Optional<ReenactmentCategory> findByCode(String code);
 }
@@ -0,0 +1,74 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.projections.SearchHit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.DataClassRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-text search across the public content tables. Every searchable table carries a generated
+ * {@code search_vector} column (German, English and French lexemes, see schema.sql) with a GIN index;
+ * the query is parsed with the requested text search configuration so it matches that language's stems.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchRepository {
+
+    private static final String MATCHES = """
+            WITH q AS (SELECT websearch_to_tsquery(CAST(:config AS regconfig), :query) AS query),
+            hits AS (
+                SELECT 'EVENT' AS type, e.id, CAST(NULL AS uuid) AS parent_id, e.title, e.text AS body,
+                       ts_rank_cd(e.search_vector, q.query) AS rank
+                FROM events e, q
+                WHERE e.search_vector @@ q.query
+                UNION ALL
+                SELECT 'GALLERY', g.id, NULL, g.title, g.description, ts_rank_cd(g.search_vector, q.query)
+                FROM galleries g, q
+                WHERE g.is_published AND g.search_vector @@ q.query
+                UNION ALL
+                SELECT 'BLOCK', b.id, b.category_id, b.title, b.text, ts_rank_cd(b.search_vector, q.query)
+                FROM blocks b, q
+                WHERE b.search_vector @@ q.query
+                UNION ALL
+                SELECT 'PHOTO', p.id, p.gallery_id, p.caption, NULL, ts_rank_cd(p.search_vector, q.query)
+                FROM photos p JOIN galleries g ON g.id = p.gallery_id, q
+                WHERE g.is_published AND p.status = 'READY' AND p.search_vector @@ q.query
+            )
+            """;
+
+    // Highlighting is the expensive part, so it runs only on the requested page.
+    private static final String SEARCH = MATCHES + """
+            SELECT h.type, h.id, h.parent_id, h.title, h.rank,
+                   ts_headline(CAST(:config AS regconfig), COALESCE(h.body, h.title, ''), q.query,
+                               'MaxWords=35, MinWords=15, MaxFragments=2') AS snippet
+            FROM (SELECT * FROM hits ORDER BY rank DESC, id LIMIT :limit OFFSET :offset) h, q
+            ORDER BY h.rank DESC, h.id
+            """;
+
+    private static final String COUNT = MATCHES + "SELECT COUNT(*) FROM hits";
+
+    private static final DataClassRowMapper<SearchHit> ROW_MAPPER = new DataClassRowMapper<>(SearchHit.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<SearchHit> search(String config, String query, int limit, long offset) {
+        var params = new MapSqlParameterSource()
+                .addValue("config", config)
+                .addValue("query", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(SEARCH, params, ROW_MAPPER);
+    }
+
+    public long count(String config, String query) {
+        var params = new MapSqlParameterSource()
+                .addValue("config", config)
+                .addValue("query", query);
+        Long count = jdbcTemplate.queryForObject(COUNT, params, Long.class);
+        return count != null ? count : 0;
+    }
+}
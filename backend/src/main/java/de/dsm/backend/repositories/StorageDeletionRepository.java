@@ -0,0 +1,33 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.entity.StorageDeletion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, UUID> {
+    @Query(value = """
+            SELECT * FROM storage_deletions
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<StorageDeletion> findDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM storage_deletions d
+            WHERE EXISTS (SELECT 1 FROM photo_contents c WHERE c.content_hash = d.content_hash)
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_deletions"))
+    int deleteReacquired();
+}
@@ -0,0 +1,36 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.CacheRegionStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsResponse> getRegionStatistics() {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(region -> {
+                    long lookups = region.getHitCount() + region.getMissCount();
+                    return new CacheRegionStatsResponse(
+                            region.getRegionName(),
+                            region.getHitCount(),
+                            region.getMissCount(),
+                            region.getPutCount(),
+                            lookups == 0 ? 0 : (double) region.getHitCount() / lookups);
+                })
+                .toList();
+    }
+}
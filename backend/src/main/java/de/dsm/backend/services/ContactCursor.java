@@ -0,0 +1,24 @@
+package de.dsm.backend.services;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Position of the last message on an inbox page in (created_at desc, id desc) order.
+ */
+record ContactCursor(LocalDateTime createdAt, UUID id) {
+
+    String encode() {
+        return CursorCodec.encode(createdAt.toString(), id.toString());
+    }
+
+    static ContactCursor decode(String token) {
+        String[] parts = CursorCodec.decode(token, 2);
+        try {
+            return new ContactCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid contact cursor", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.entity.ContactMailOutbox;
+import de.dsm.backend.models.mails.ContactMailData;
+import de.dsm.backend.repositories.ContactMailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ContactMailOutboxService {
+
+    private final ContactMailOutboxRepository contactMailOutboxRepository;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.lease:5m}")
+    private Duration lease;
+
+    @Value("${mail.outbox.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${mail.outbox.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    /**
+     * Queues the mail in the caller's transaction, so it is sent if and only if that transaction commits.
+     */
+    public void enqueue(ContactMailData mail) {
+        contactMailOutboxRepository.save(new ContactMailOutbox(mail));
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:5s}")
+    public void dispatchPending() {
+        List<ContactMailOutbox> mails;
+        do {
+            mails = new TransactionTemplate(transactionManager).execute(status -> claimMails());
+            if (mails == null || mails.isEmpty()) {
+                return;
+            }
+            sendMails(mails);
+        } while (mails.size() == batchSize);
+    }
+
+    private List<ContactMailOutbox> claimMails() {
+        var now = LocalDateTime.now();
+        var mails = contactMailOutboxRepository.findDue(now, batchSize);
+        mails.forEach(mail -> mail.lease(now.plus(lease)));
+        return contactMailOutboxRepository.saveAll(mails);
+    }
+
+    void sendMails(List<ContactMailOutbox> mails) {
+        // Failures are tracked per row, so one mail that can never be built or sent only delays itself.
+        Exception[] failures = new Exception[mails.size()];
+        MimeMessage[] messages = new MimeMessage[mails.size()];
+        for (int i = 0; i < mails.size(); i++) {
+            try {
+                messages[i] = emailService.createContactMessage(mails.get(i).toMailData());
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        }
+
+        List<MimeMessage> batch = Arrays.stream(messages).filter(Objects::nonNull).toList();
+        Map<Object, Exception> sendFailures = Map.of();
+        MailException batchFailure = null;
+        if (!batch.isEmpty()) {
+            try {
+                emailService.send(batch);
+            } catch (MailSendException e) {
+                sendFailures = e.getFailedMessages();
+            } catch (MailException e) {
+                batchFailure = e;
+            }
+        }
+
+        List<ContactMailOutbox> sent = new ArrayList<>();
+        List<ContactMailOutbox> failed = new ArrayList<>();
+        for (int i = 0; i < mails.size(); i++) {
+            ContactMailOutbox mail = mails.get(i);
+            Exception failure = failures[i] != null ? failures[i]
+                    : batchFailure != null ? batchFailure
+                    : sendFailures.get(messages[i]);
+            if (failure == null) {
+                sent.add(mail);
+                continue;
+            }
+            if (mail.getAttempts() >= maxAttempts) {
+                log.error("Contact mail {} failed permanently after {} attempts: {}", mail.getId(), mail.getAttempts(), failure.getMessage());
+                mail.fail(failure.getMessage());
+            } else {
+                log.warn("Contact mail {} failed on attempt {}: {}", mail.getId(), mail.getAttempts(), failure.getMessage());
+                mail.retryAt(LocalDateTime.now().plus(backoffFor(mail.getAttempts())), failure.getMessage());
+            }
+            failed.add(mail);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            contactMailOutboxRepository.deleteAllInBatch(sent);
+            contactMailOutboxRepository.saveAll(failed);
+        });
+    }
+
+    private Duration backoffFor(int attempts) {
+        var backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -1,18 +1,21 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.ContactCreatedNotification;
+import de.dsm.backend.models.dto.ContactCursorPageResponse;
 import de.dsm.backend.models.dto.ContactRequest;
 import de.dsm.backend.models.dto.ContactResponse;
 import de.dsm.backend.models.entity.Contact;
 import de.dsm.backend.models.mails.ContactMailData;
 import de.dsm.backend.repositories.ContactRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.mail.MailException;
-import org.springframework.resilience.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -20,12 +23,19 @@ import java.util.UUID;
 public class ContactService {
 
     private final ContactRepository contactRepository;
-    private final EmailService emailService;
+    private final ContactMailOutboxService contactMailOutboxService;
+    private final UnreadContactCounter unreadContactCounter;
+    private final NotificationBroadcaster notificationBroadcaster;
 
+    @Transactional
     public void createContact(ContactRequest contactRequest) {
         Contact contact = new Contact(contactRequest.name(), contactRequest.email(), contactRequest.message());
         contactRepository.save(contact);
-        sendEmailAsync(contactRequest);
+        contactMailOutboxService.enqueue(
+                new ContactMailData(contactRequest.name(), contactRequest.email(), contactRequest.message()));
+        unreadContactCounter.increment();
+        notificationBroadcaster.publish(NotificationBroadcaster.CONTACT_CREATED,
+                () -> new ContactCreatedNotification(contact.getId(), contact.getName(), unreadContactCounter.get()));
     }
 
     public Page<ContactResponse> getContacts(Pageable pageable) {
@@ -33,32 +43,48 @@ public class ContactService {
         return contacts.map(ContactResponse::fromEntity);
     }
 
+    @Transactional(readOnly = true)
+    public ContactCursorPageResponse getInbox(String after, int size, boolean unreadOnly) {
+        ContactCursor cursor = after == null || after.isBlank() ? null : ContactCursor.decode(after);
+        Limit limit = Limit.of(size + 1);
+
+        List<Contact> rows;
+        if (unreadOnly) {
+            rows = cursor == null
+                    ? contactRepository.findUnreadInbox(limit)
+                    : contactRepository.findUnreadInboxAfter(cursor.createdAt(), cursor.id(), limit);
+        } else {
+            rows = cursor == null
+                    ? contactRepository.findInbox(limit)
+                    : contactRepository.findInboxAfter(cursor.createdAt(), cursor.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<Contact> page = hasMore ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasMore) {
+            Contact last = page.getLast();
+            next = new ContactCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new ContactCursorPageResponse(page.stream().map(ContactResponse::fromEntity).toList(), next);
+    }
+
     public long readContactMessage(UUID id) {
-        var contactObject = contactRepository.findById(id);
-        if (contactObject.isPresent() && !contactObject.get().isRead()) {
-            var contact = contactObject.get();
-            contact.markAsRead();
-            contactRepository.save(contact);
+        if (contactRepository.markRead(id, LocalDateTime.now()) > 0) {
+            unreadContactCounter.decrement();
         }
         return getUnreadCount();
     }
 
     public void deleteContact(UUID id) {
-        contactRepository.deleteById(id);
+        if (contactRepository.deleteUnreadById(id) > 0) {
+            unreadContactCounter.decrement();
+        } else {
+            contactRepository.deleteById(id);
+        }
     }
 
     public long getUnreadCount() {
-        return contactRepository.countByReadFalse();
-    }
-
-    @Async
-    @Retryable(
-            value = MailException.class,
-            maxRetries = 3,
-            delay = 5000
-    )
-    public void sendEmailAsync(ContactRequest contactRequest) {
-        var contact = new ContactMailData(contactRequest.name(), contactRequest.email(), contactRequest.message());
-        emailService.sendContactMessage(contact);
+        return unreadContactCounter.get();
     }
 }
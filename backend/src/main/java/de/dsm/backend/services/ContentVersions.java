@@ -0,0 +1,80 @@
+package de.dsm.backend.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Version stamps for public read models, bumped by the services whenever the underlying data changes.
+ * Controllers turn them into ETag / Last-Modified validators so unchanged content can be answered with 304.
+ */
+@Component
+public class ContentVersions {
+
+    public static final String GALLERIES = "galleries";
+    public static final String EVENTS = "events";
+    public static final String REENACTMENT = "reenactment";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Instant startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final ConcurrentMap<String, Version> versions = new ConcurrentHashMap<>();
+
+    public static String gallery(UUID galleryId) {
+        return "gallery:" + galleryId;
+    }
+
+    public Version current(String resource) {
+        return versions.getOrDefault(resource, new Version(epoch, 0, startedAt));
+    }
+
+    /**
+     * Bumps the given resources once the surrounding transaction commits, or immediately without one,
+     * so a reader never sees a new version paired with uncommitted data.
+     */
+    public void bump(String... resources) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpNow(resources);
+                }
+            });
+        } else {
+            bumpNow(resources);
+        }
+    }
+
+    /**
+     * Last-Modified only has whole-second precision, so a bump moves it to the next second boundary and at
+     * least one second past the previous value. Otherwise a write in the same second as an earlier response
+     * would leave it unchanged, and a client revalidating with If-Modified-Since alone would get a stale 304.
+     */
+    private void bumpNow(String... resources) {
+        Instant now = Instant.now();
+        Instant truncated = now.truncatedTo(ChronoUnit.SECONDS);
+        Instant roundedUp = truncated.equals(now) ? truncated : truncated.plusSeconds(1);
+        for (String resource : resources) {
+            versions.merge(resource, new Version(epoch, 1, max(roundedUp, startedAt.plusSeconds(1))),
+                    (current, ignored) -> new Version(
+                            epoch,
+                            current.counter() + 1,
+                            max(roundedUp, current.lastModified().plusSeconds(1))));
+        }
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    public record Version(String epoch, long counter, Instant lastModified) {
+        public String etag() {
+            return "W/\"" + epoch + "-" + counter + "\"";
+        }
+    }
+}
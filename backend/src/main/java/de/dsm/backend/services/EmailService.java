@@ -2,29 +2,37 @@ package de.dsm.backend.services;
 
 import de.dsm.backend.models.mails.ContactMailData;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailService {
     private final JavaMailSender mailSender;
+    private final MailTransportPool mailTransportPool;
 
     @Value("${admin.email}")
     private String adminEmail;
 
-    public void sendContactMessage(ContactMailData contact) {
+    public MimeMessage createContactMessage(ContactMailData contact) {
         try {
-            SimpleMailMessage mail = new SimpleMailMessage();
-            mail.setTo(adminEmail);
-            mail.setSubject("New contact message");
-            mail.setText("""
+            MimeMessage mail = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mail, StandardCharsets.UTF_8.name());
+            helper.setTo(adminEmail);
+            helper.setSubject("New contact message");
+            helper.setText("""
                     New message received:
                     
                     Name: %s
@@ -34,10 +42,21 @@ public class EmailService {
                     %s
                     """.formatted(contact.name(), contact.email(), contact.message()
             ));
+            return mail;
+        } catch (MessagingException e) {
+            throw new MailPreparationException(e);
+        }
+    }
 
-            mailSender.send(mail);
+    /**
+     * Sends the messages as one batch over the pooled SMTP connection. Per-message failures are
+     * reported through {@link org.springframework.mail.MailSendException#getFailedMessages()}.
+     */
+    public void send(List<MimeMessage> messages) {
+        try {
+            mailTransportPool.send(messages);
         } catch (MailException e) {
-            log.error("Email send failed for {}", contact.email(), e);
+            log.error("Email batch of {} failed: {}", messages.size(), e.getMessage());
             throw e;
         }
     }
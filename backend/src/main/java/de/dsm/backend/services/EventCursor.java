@@ -0,0 +1,26 @@
+package de.dsm.backend.services;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Position of the last event on a page in (date desc nulls last, id desc) order.
+ */
+record EventCursor(LocalDate date, UUID id) {
+
+    private static final String UNDATED = "-";
+
+    String encode() {
+        return CursorCodec.encode(date != null ? date.toString() : UNDATED, id.toString());
+    }
+
+    static EventCursor decode(String token) {
+        String[] parts = CursorCodec.decode(token, 2);
+        try {
+            return new EventCursor(UNDATED.equals(parts[0]) ? null : LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid event cursor", e);
+        }
+    }
+}
@@ -1,27 +1,43 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.EventCursorPageResponse;
 import de.dsm.backend.models.dto.EventRequest;
 import de.dsm.backend.models.dto.EventResponse;
 import de.dsm.backend.models.entity.Event;
+import de.dsm.backend.models.projections.EventSummary;
 import de.dsm.backend.repositories.EventRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
 
+    private static final LocalDate FIRST_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+
     private final S3UrlService s3UrlService;
     private final EventRepository eventRepository;
     private final PhotoService photoService;
+    private final ContentVersions contentVersions;
+
+    @Value("${events.time-zone:Europe/Berlin}")
+    private ZoneId timeZone;
 
     public EventResponse createEvent(EventRequest eventRequest){
         if (eventRequest.title() == null || eventRequest.title().isBlank()) {
@@ -33,23 +49,86 @@ public class EventService {
         
         var event = new Event();
         updateRecord(event, eventRequest);
-        return mapResponse(eventRepository.save(event));
+        var saved = eventRepository.save(event);
+        contentVersions.bump(ContentVersions.EVENTS);
+        return mapResponse(saved);
     }
 
     public EventResponse createEventWithFile(MultipartFile file, String title, String text, String link, String date) {
         validateEventFields(title, text);
         var event = new Event();
         setEventFieldsFromMultipart(event, file, title, text, link, date);
-        return mapResponse(eventRepository.save(event));
+        var saved = eventRepository.save(event);
+        contentVersions.bump(ContentVersions.EVENTS);
+        return mapResponse(saved);
     }
 
+    @Transactional(readOnly = true)
     public EventResponse getEvent(UUID id) {
         var event = eventRepository.getReferenceById(id);
         return mapResponse(event);
     }
 
+    @Transactional(readOnly = true)
     public Page<EventResponse> getEvents(Pageable pageable) {
-        return eventRepository.findAllOrderByDateDesc(pageable).map(this::mapResponse);
+        return eventRepository.findSummariesOrderByDateDesc(pageable).map(this::mapResponse);
+    }
+
+    /**
+     * Dated events between {@code from} and {@code to} inclusive, oldest first. Either end may be open;
+     * {@code upcoming} moves the start to today if it is earlier.
+     */
+    @Transactional(readOnly = true)
+    public Page<EventResponse> getEventsInRange(LocalDate from, LocalDate to, boolean upcoming, Pageable pageable) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Event range start must not be after its end");
+        }
+        LocalDate start = from != null ? from : FIRST_DATE;
+        if (upcoming && start.isBefore(today())) {
+            start = today();
+        }
+        LocalDate end = to != null ? to : LAST_DATE;
+        if (start.isAfter(end)) {
+            return Page.empty(pageable);
+        }
+        return eventRepository.findSummariesBetween(start, end, pageable).map(this::mapResponse);
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(timeZone);
+    }
+
+    // Upcoming listings are cached against the events version, so it has to change with the day.
+    @Scheduled(cron = "0 0 0 * * *", zone = "${events.time-zone:Europe/Berlin}")
+    public void rollOverDay() {
+        contentVersions.bump(ContentVersions.EVENTS);
+    }
+
+    @Transactional(readOnly = true)
+    public EventCursorPageResponse getEventsAfter(String after, int size) {
+        EventCursor cursor = after == null || after.isBlank() ? null : EventCursor.decode(after);
+        Limit limit = Limit.of(size + 1);
+
+        List<EventSummary> rows;
+        if (cursor == null) {
+            rows = eventRepository.findFirstKeysetPage(limit);
+        } else if (cursor.date() == null) {
+            rows = eventRepository.findUndatedAfter(cursor.id(), limit);
+        } else {
+            rows = new ArrayList<>(eventRepository.findDatedAfter(cursor.date(), cursor.id(), limit));
+            if (rows.size() < limit.max()) {
+                rows.addAll(eventRepository.findUndated(Limit.of(limit.max() - rows.size())));
+            }
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<EventSummary> page = hasMore ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasMore) {
+            EventSummary last = page.getLast();
+            next = new EventCursor(last.date(), last.id()).encode();
+        }
+        return new EventCursorPageResponse(page.stream().map(this::mapResponse).toList(), next);
     }
 
     public EventResponse updateEvent(UUID id, EventRequest eventRequest) {
@@ -57,7 +136,9 @@ public class EventService {
         updateRecord(event, eventRequest);
 
         event.setUpdatedAt(LocalDateTime.now());
-        return mapResponse(eventRepository.save(event));
+        var saved = eventRepository.save(event);
+        contentVersions.bump(ContentVersions.EVENTS);
+        return mapResponse(saved);
     }
 
     public EventResponse updateEventWithFile(UUID id, MultipartFile file, String title, String text, String link, String date) {
@@ -65,11 +146,14 @@ public class EventService {
         Event event = eventRepository.getReferenceById(id);
         setEventFieldsFromMultipart(event, file, title, text, link, date);
         event.setUpdatedAt(LocalDateTime.now());
-        return mapResponse(eventRepository.save(event));
+        var saved = eventRepository.save(event);
+        contentVersions.bump(ContentVersions.EVENTS);
+        return mapResponse(saved);
     }
 
     public void deleteEvent(UUID id){
         eventRepository.deleteById(id);
+        contentVersions.bump(ContentVersions.EVENTS);
     }
 
     private void validateEventFields(String title, String text) {
@@ -130,4 +214,16 @@ public class EventService {
             event.getCreatedAt(),
             event.getUpdatedAt());
     }
+
+    private EventResponse mapResponse(EventSummary event) {
+        return new EventResponse(
+            event.id(),
+            event.title(),
+            event.excerpt(),
+            s3UrlService.getPublicUrl(event.image()),
+            event.link(),
+            event.date(),
+            event.createdAt(),
+            event.updatedAt());
+    }
 }
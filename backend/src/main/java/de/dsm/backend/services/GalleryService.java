@@ -3,6 +3,7 @@ package de.dsm.backend.services;
 import de.dsm.backend.models.dto.GalleryRequest;
 import de.dsm.backend.models.dto.GalleryResponse;
 import de.dsm.backend.models.entity.Gallery;
+import de.dsm.backend.models.projections.GallerySummary;
 import de.dsm.backend.repositories.GalleryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,10 +19,12 @@ public class GalleryService {
     private final S3UrlService s3UrlService;
     private final GalleryRepository galleryRepository;
     private final PhotoService photoService;
+    private final ContentVersions contentVersions;
 
     public GalleryResponse createGallery(GalleryRequest galleryRequest) {
         var gallery = new Gallery(galleryRequest.title(), null, galleryRequest.description(), galleryRequest.is_published());
         galleryRepository.save(gallery);
+        contentVersions.bump(ContentVersions.GALLERIES);
         return mapToResponse(gallery);
     }
 
@@ -42,6 +45,7 @@ public class GalleryService {
         }
 
         galleryRepository.save(gallery);
+        contentVersions.bump(ContentVersions.GALLERIES);
         return mapToResponse(gallery);
     }
 
@@ -49,14 +53,16 @@ public class GalleryService {
         return galleryRepository.getReferenceById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<GalleryResponse> getAllPublishedGalleries() {
-        return galleryRepository.findByIs_publishedTrueOrderByCreatedAtDesc().stream()
+        return galleryRepository.findSummaries(true).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<GalleryResponse> getAllGalleries() {
-        return galleryRepository.findAll().stream()
+        return galleryRepository.findSummaries(false).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -66,6 +72,7 @@ public class GalleryService {
         photoService.deletePhotosByGalleryId(id);
         
         galleryRepository.deleteById(id);
+        contentVersions.bump(ContentVersions.GALLERIES, ContentVersions.gallery(id));
     }
 
     private GalleryResponse mapToResponse(Gallery gallery) {
@@ -75,7 +82,22 @@ public class GalleryService {
                 gallery.getDescription(),
                 s3UrlService.getPublicUrl(gallery.getImage()),
                 gallery.getPublished(),
-                gallery.getCreatedAt()
+                gallery.getCreatedAt(),
+                null,
+                null
+        );
+    }
+
+    private GalleryResponse mapToResponse(GallerySummary gallery) {
+        return new GalleryResponse(
+                gallery.getId(),
+                gallery.getTitle(),
+                gallery.getDescription(),
+                s3UrlService.getPublicUrl(gallery.getImage()),
+                gallery.getPublished(),
+                gallery.getCreatedAt(),
+                gallery.getPhotoCount(),
+                s3UrlService.getPublicUrl(gallery.getCoverKey())
         );
     }
 }
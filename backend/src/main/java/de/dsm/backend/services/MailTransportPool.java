@@ -0,0 +1,186 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.MailTransportStatsResponse;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.NoSuchProviderException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one authenticated SMTP connection open between batches, so a burst of mails costs a single
+ * STARTTLS handshake instead of one per message. The connection is closed after {@code idleTimeout}
+ * without traffic.
+ */
+@Service
+@Slf4j
+public class MailTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesFailed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    /** Guards the transport; a lock rather than synchronized so SMTP I/O does not pin virtual threads. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${mail.transport.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    private Transport transport;
+    /** Mirrors {@code transport != null} for statistics, which must not wait for a batch to finish. */
+    private volatile boolean connected;
+    private long lastUsedNanos;
+    private long sentOnConnection;
+
+    public MailTransportPool(JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Sends the messages over the shared connection. Messages that fail individually are reported in
+     * the {@link MailSendException#getFailedMessages() failed messages} of the thrown exception; the
+     * remaining messages are still sent. If no connection can be established, the whole batch fails.
+     */
+    public void send(List<MimeMessage> messages) throws MailException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            sendLocked(messages);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sendLocked(List<MimeMessage> messages) {
+        batches.incrementAndGet();
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            MimeMessage message = messages.get(i);
+            try {
+                connectedTransport();
+            } catch (MessagingException e) {
+                messagesFailed.addAndGet(messages.size() - i);
+                if (e instanceof AuthenticationFailedException) {
+                    throw new MailAuthenticationException(e);
+                }
+                messages.subList(i, messages.size()).forEach(remaining -> failed.put(remaining, e));
+                throw new MailSendException("Could not connect to SMTP server", e, failed);
+            }
+            try {
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new Date());
+                }
+                message.saveChanges();
+                deliver(message);
+                messagesSent.incrementAndGet();
+                sentOnConnection++;
+            } catch (MessagingException e) {
+                messagesFailed.incrementAndGet();
+                failed.put(message, e);
+            }
+        }
+        lastUsedNanos = System.nanoTime();
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.transport.idle-check-interval:10s}")
+    public void closeIdle() {
+        lock.lock();
+        try {
+            if (transport != null && System.nanoTime() - lastUsedNanos >= idleTimeout.toNanos()) {
+                log.debug("Closing idle SMTP connection after {} messages", sentOnConnection);
+                close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public MailTransportStatsResponse getStatistics() {
+        long sent = messagesSent.get();
+        long connections = connectionsOpened.get();
+        return new MailTransportStatsResponse(
+                sent,
+                messagesFailed.get(),
+                batches.get(),
+                connections,
+                connections == 0 ? 0 : (double) sent / connections,
+                connected);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null) {
+            Transport opened = newTransport();
+            opened.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            transport = opened;
+            connected = true;
+            sentOnConnection = 0;
+            connectionsOpened.incrementAndGet();
+        }
+        return transport;
+    }
+
+    private void deliver(MimeMessage message) throws MessagingException {
+        Transport connected = connectedTransport();
+        try {
+            connected.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (connected.isConnected()) {
+                throw e;
+            }
+            // The server dropped the connection since the last batch; retry once on a fresh one.
+            close();
+            connectedTransport().sendMessage(message, message.getAllRecipients());
+        }
+    }
+
+    Transport newTransport() throws NoSuchProviderException {
+        String protocol = mailSender.getProtocol();
+        return mailSender.getSession().getTransport(protocol != null ? protocol : JavaMailSenderImpl.DEFAULT_PROTOCOL);
+    }
+
+    private void close() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection cleanly: {}", e.getMessage());
+        }
+        transport = null;
+        connected = false;
+    }
+}
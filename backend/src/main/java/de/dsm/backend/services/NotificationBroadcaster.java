@@ -0,0 +1,121 @@
+package de.dsm.backend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Fans admin notifications out to the open server-sent event streams of this instance.
+ * Idle streams hold no thread. Each stream gets its own virtual-thread send task, so neither a publisher
+ * nor the other streams wait for a slow or half-open client.
+ */
+@Slf4j
+@Component
+public class NotificationBroadcaster {
+
+    public static final String CONTACT_CREATED = "contact-created";
+    public static final String PHOTO_PROCESSED = "photo-processed";
+    public static final String UNREAD_COUNT = "unread-count";
+
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final Executor executor;
+
+    @Value("${notifications.stream.timeout:30m}")
+    private Duration timeout;
+
+    public NotificationBroadcaster() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    NotificationBroadcaster(Executor executor) {
+        this.executor = executor;
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    public void publish(String name, Object data) {
+        publish(name, () -> data);
+    }
+
+    /**
+     * Sends an event to every subscriber once the surrounding transaction commits, or right away without one.
+     * The payload is built at that point, so it can reflect state that only changes on commit.
+     */
+    public void publish(String name, Supplier<?> data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(name, data.get());
+                }
+            });
+        } else {
+            dispatch(name, data.get());
+        }
+    }
+
+    public void send(SseEmitter emitter, String name, Object data) {
+        deliver(emitter, SseEmitter.event().name(name).data(data));
+    }
+
+    // Keeps proxies from closing idle streams and finds connections that went away silently.
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat:25s}")
+    public void heartbeat() {
+        if (!emitters.isEmpty()) {
+            emitters.forEach(emitter -> executor.execute(() -> deliver(emitter, SseEmitter.event().comment("ping"))));
+        }
+    }
+
+    int subscriberCount() {
+        return emitters.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        emitters.forEach(SseEmitter::complete);
+        emitters.clear();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.close();
+        }
+    }
+
+    private void dispatch(String name, Object data) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        emitters.forEach(emitter -> executor.execute(() -> send(emitter, name, data)));
+    }
+
+    private void deliver(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream: {}", e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.PhotoProcessedNotification;
+import de.dsm.backend.models.entity.PhotoJob;
+import de.dsm.backend.models.entity.PhotoStatus;
+import de.dsm.backend.repositories.PhotoJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+@Service
+@Slf4j
+public class PhotoProcessingService {
+
+    private final PhotoJobRepository photoJobRepository;
+    private final PhotoService photoService;
+    private final NotificationBroadcaster notificationBroadcaster;
+    private final TaskExecutor photoProcessingExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore workerSlots;
+
+    @Value("${photos.processing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${photos.processing.retry-backoff:30s}")
+    private Duration retryBackoff;
+
+    @Value("${photos.processing.stale-after:10m}")
+    private Duration staleAfter;
+
+    public PhotoProcessingService(PhotoJobRepository photoJobRepository,
+                                  PhotoService photoService,
+                                  NotificationBroadcaster notificationBroadcaster,
+                                  @Qualifier("photoProcessingExecutor") TaskExecutor photoProcessingExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${photos.processing.workers:2}") int workers) {
+        this.photoJobRepository = photoJobRepository;
+        this.photoService = photoService;
+        this.notificationBroadcaster = notificationBroadcaster;
+        this.photoProcessingExecutor = photoProcessingExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerSlots = new Semaphore(workers);
+    }
+
+    @Scheduled(fixedDelayString = "${photos.processing.poll-interval:2s}")
+    public void processPendingJobs() {
+        int freeSlots = workerSlots.availablePermits();
+        if (freeSlots == 0) {
+            return;
+        }
+
+        List<PhotoJob> jobs = transactionTemplate.execute(status -> claimJobs(freeSlots));
+        if (jobs == null) {
+            return;
+        }
+
+        for (PhotoJob job : jobs) {
+            workerSlots.acquireUninterruptibly();
+            try {
+                photoProcessingExecutor.execute(() -> {
+                    try {
+                        runJob(job);
+                    } finally {
+                        workerSlots.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                workerSlots.release();
+                log.warn("Photo processing executor rejected job {}, it will be picked up again", job.getId());
+            }
+        }
+    }
+
+    private List<PhotoJob> claimJobs(int limit) {
+        var now = LocalDateTime.now();
+        var jobs = photoJobRepository.findClaimable(now, now.minus(staleAfter), limit);
+        jobs.forEach(job -> job.claim(now));
+        return photoJobRepository.saveAll(jobs);
+    }
+
+    void runJob(PhotoJob job) {
+        try {
+            boolean processed = photoService.generateVariants(job.getPhotoId());
+            photoJobRepository.deleteById(job.getId());
+            if (processed) {
+                notifyProcessed(job, PhotoStatus.READY);
+            }
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (isUnprocessable(e) || job.getAttempts() >= maxAttempts) {
+                failJob(job, error, e);
+            } else {
+                log.warn("Photo processing attempt {} failed for photo {}: {}", job.getAttempts(), job.getPhotoId(), error);
+                retry(job, error);
+            }
+            photoJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Unsupported or corrupt image data fails the same way on every attempt, so it is not retried.
+     */
+    private static boolean isUnprocessable(Exception e) {
+        return e instanceof IllegalArgumentException || e instanceof IIOException;
+    }
+
+    /**
+     * Fails the job once its photo is marked FAILED. If that does not go through, the job is retried
+     * instead, so it never stays RUNNING until the lease expires and the photo is not left PROCESSING.
+     */
+    private void failJob(PhotoJob job, String error, Exception cause) {
+        boolean marked;
+        try {
+            marked = photoService.markFailed(job.getPhotoId());
+        } catch (RuntimeException e) {
+            log.warn("Could not mark photo {} as failed, retrying its job: {}", job.getPhotoId(), e.getMessage());
+            retry(job, error);
+            return;
+        }
+
+        log.error("Photo processing failed permanently for photo {}", job.getPhotoId(), cause);
+        job.fail(error);
+        if (marked) {
+            notifyProcessed(job, PhotoStatus.FAILED);
+        }
+    }
+
+    private void retry(PhotoJob job, String error) {
+        job.retryAt(LocalDateTime.now().plus(retryBackoff.multipliedBy(1L << Math.min(job.getAttempts() - 1, 20))), error);
+    }
+
+    private void notifyProcessed(PhotoJob job, PhotoStatus status) {
+        notificationBroadcaster.publish(NotificationBroadcaster.PHOTO_PROCESSED,
+                new PhotoProcessedNotification(job.getPhotoId(), status));
+    }
+}
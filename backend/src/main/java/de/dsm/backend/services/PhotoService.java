@@ -1,38 +1,105 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.PhotoFinalizeRequest;
 import de.dsm.backend.models.dto.PhotoResponse;
+import de.dsm.backend.models.dto.PhotoUploadResult;
+import de.dsm.backend.models.dto.PhotoUploadUrlRequest;
+import de.dsm.backend.models.dto.PhotoUploadUrlResponse;
 import de.dsm.backend.models.entity.Photo;
+import de.dsm.backend.models.entity.PhotoJob;
+import de.dsm.backend.models.entity.PhotoStatus;
+import de.dsm.backend.repositories.PhotoContentRepository;
+import de.dsm.backend.repositories.PhotoJobRepository;
 import de.dsm.backend.repositories.PhotoRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class PhotoService {
 
+    private static final String WIDTH_VERSION_PREFIX = "w";
+    private static final String DIRECT_UPLOAD_PREFIX = "uploads/";
+
     private final S3UrlService s3UrlService;
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final ObjectProvider<S3AsyncClient> s3AsyncClient;
     private final PhotoRepository photoRepository;
+    private final PhotoJobRepository photoJobRepository;
+    private final PhotoContentRepository photoContentRepository;
+    private final StorageCleanupService storageCleanupService;
+    private final ContentVersions contentVersions;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${storage.s3.bucket-name}")
     private String bucketName;
@@ -40,60 +107,405 @@ public class PhotoService {
     @Value("${admin.image.thumbsize}")
     private int thumbSize;
 
+    @Value("${admin.image.widths}")
+    private List<Integer> variantWidths;
+
+    @Value("${photos.upload.batch-parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${storage.s3.upload-url-ttl:15m}")
+    private Duration uploadUrlTtl;
+
     public PhotoResponse uploadFile(MultipartFile file, String caption, String altText, UUID galleryId) throws IOException {
+        var upload = storeOriginal(file, caption, altText, galleryId);
+        var photoResult = persistForProcessing(List.of(upload)).get(0);
+        return mapToPhotoResponse(photoResult);
+    }
 
-        byte[] fileBytes = file.getBytes();
+    public List<PhotoUploadResult> uploadFiles(List<MultipartFile> files, UUID galleryId) {
+        Semaphore permits = new Semaphore(batchParallelism);
+        List<Future<StoredUpload>> uploads = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                uploads.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return storeOriginal(file, null, null, galleryId);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
 
-        try (InputStream inputStream = new ByteArrayInputStream(fileBytes)) {
-            var image = ImageIO.read(inputStream);
+        List<StoredUpload> stored = new ArrayList<>();
+        PhotoUploadResult[] results = new PhotoUploadResult[files.size()];
+        for (int i = 0; i < files.size(); i++) {
+            String fileName = files.get(i).getOriginalFilename();
+            try {
+                stored.add(awaitUpload(uploads.get(i)));
+            } catch (Exception e) {
+                log.warn("Batch upload failed for {}: {}", fileName, e.getMessage());
+                results[i] = PhotoUploadResult.failed(fileName, e.getMessage());
+            }
+        }
+
+        Iterator<Photo> saved = stored.isEmpty()
+                ? Collections.emptyIterator()
+                : persistForProcessing(stored).iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = PhotoUploadResult.uploaded(files.get(i).getOriginalFilename(), mapToPhotoResponse(saved.next()));
+            }
+        }
+        return List.of(results);
+    }
 
-            if (image == null) {
-                throw new IllegalArgumentException("Wrong image format");
+    /**
+     * Issues a presigned PUT URL so the client can upload the original straight to S3.
+     * The photo is only registered once {@link #finalizeUpload} is called with the returned key.
+     */
+    public PhotoUploadUrlResponse createUploadUrl(PhotoUploadUrlRequest request) {
+        String objectKey = DIRECT_UPLOAD_PREFIX + UUID.randomUUID() + extensionOf(request.fileName());
+
+        var presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(uploadUrlTtl)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(request.contentType())
+                        .build())
+                .build());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
             }
+        });
 
-            String baseName = UUID.randomUUID().toString();
-            String objectKey = "original/" + baseName + "_" + file.getOriginalFilename();
-            String thumbKey = "thumbs/" + baseName + "_thumb.jpg";
+        return new PhotoUploadUrlResponse(objectKey, presigned.url().toString(), headers, presigned.expiration());
+    }
 
-            var width = image.getWidth();
-            var height = image.getHeight();
+    public PhotoResponse finalizeUpload(PhotoFinalizeRequest request) {
+        String objectKey = request.objectKey();
+        if (!objectKey.startsWith(DIRECT_UPLOAD_PREFIX)) {
+            throw new IllegalArgumentException("Object key was not issued for a direct upload");
+        }
+        if (photoRepository.existsByObjectKey(objectKey)) {
+            throw alreadyFinalized();
+        }
 
-            BufferedImage thumbImage = createThumbnail(image, thumbSize);
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new IllegalArgumentException("Uploaded object not found: " + objectKey);
+        }
 
-            uploadToS3(objectKey, fileBytes, file.getContentType());
+        if (head.contentType() == null || !head.contentType().startsWith("image/")) {
+            throw new IllegalArgumentException("Uploaded object is not an image");
+        }
+
+        Map<String, String> versions = new HashMap<>();
+        versions.put("original", objectKey);
+
+        var photo = Photo.builder()
+                .objectKey(objectKey)
+                .bucket(bucketName)
+                .originalName(request.fileName())
+                .contentType(head.contentType())
+                .sizeBytes(head.contentLength())
+                .versions(versions)
+                .galleryId(request.galleryId())
+                .caption(request.caption() != null && !request.caption().isEmpty() ? request.caption() : null)
+                .altText(request.altText() != null && !request.altText().isEmpty() ? request.altText() : null)
+                .status(PhotoStatus.PROCESSING)
+                .build();
 
-            var thumbOs = new ByteArrayOutputStream();
-            if (!ImageIO.write(thumbImage, "jpg", thumbOs)) {
-                throw new IllegalStateException("JPEG writer not found");
+        Photo photoResult;
+        try {
+            photoResult = persistForProcessing(List.of(new StoredUpload(photo, false))).get(0);
+        } catch (DataIntegrityViolationException e) {
+            // idx_photos_direct_upload_object_key: a concurrent finalize of the same key committed first.
+            if (photoRepository.existsByObjectKey(objectKey)) {
+                throw alreadyFinalized();
             }
-            byte[] thumbBytes = thumbOs.toByteArray();
-            uploadToS3(thumbKey, thumbBytes, "image/jpeg");
+            throw e;
+        }
+        return mapToPhotoResponse(photoResult);
+    }
 
-            Map<String, String> versions = new HashMap<>();
+    private static ResponseStatusException alreadyFinalized() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Upload has already been finalized");
+    }
 
-            versions.put("original", objectKey);
-            versions.put("thumbnail", thumbKey);
+    /**
+     * Reads the part straight from the container's own spool file (the multipart threshold is 0B) for
+     * hashing, the dimension check and the PUT, instead of copying it to a second temp file first.
+     */
+    private StoredUpload storeOriginal(MultipartFile file, String caption, String altText, UUID galleryId) throws IOException {
+        String contentHash = hash(file);
+
+        var photoBuilder = Photo.builder()
+                .bucket(bucketName)
+                .originalName(file.getOriginalFilename())
+                .contentType(file.getContentType())
+                .contentHash(contentHash)
+                .caption(caption != null && !caption.isEmpty() ? caption : null)
+                .altText(altText != null && !altText.isEmpty() ? altText : null);
+
+        if (galleryId != null) {
+            photoBuilder.galleryId(galleryId);
+        }
 
-            var photoBuilder = Photo.builder()
-                    .objectKey(objectKey)
-                    .bucket(bucketName)
-                    .originalName(file.getOriginalFilename())
-                    .contentType(file.getContentType())
-                    .sizeBytes(file.getSize())
-                    .width(width)
-                    .height(height)
-                    .versions(versions)
-                    .caption(caption != null && !caption.isEmpty() ? caption : null)
-                    .altText(altText != null && !altText.isEmpty() ? altText : null);
+        var existing = photoRepository.findFirstByContentHash(contentHash)
+                .filter(photo -> photo.getStatus() != PhotoStatus.FAILED);
+
+        // Content that is no longer live may already be gone from S3, so it is written again like a fresh upload.
+        if (existing.isPresent() && reserveExistingContent(contentHash)) {
+            var source = existing.get();
+            var photo = photoBuilder
+                    .objectKey(source.getObjectKey())
+                    .contentType(source.getContentType())
+                    .sizeBytes(source.getSizeBytes())
+                    .width(source.getWidth())
+                    .height(source.getHeight())
+                    .versions(source.getVersions() != null ? new HashMap<>(source.getVersions()) : null)
+                    .status(source.getStatus())
+                    .build();
+            return new StoredUpload(photo, true);
+        }
+
+        Dimension size;
+        try (InputStream inputStream = file.getInputStream()) {
+            size = readDimensions(new MemoryCacheImageInputStream(inputStream));
+        }
+
+        String objectKey = "original/" + contentHash + extensionOf(file.getOriginalFilename());
 
-            if (galleryId != null) {
-                photoBuilder.galleryId(galleryId);
+        reserveContent(contentHash);
+        try {
+            uploadToS3(objectKey, RequestBody.fromContentProvider(() -> openPart(file), file.getSize(), file.getContentType()),
+                    file.getContentType());
+        } catch (RuntimeException e) {
+            releaseReservation(contentHash, List.of(objectKey));
+            throw e;
+        }
+
+        Map<String, String> versions = new HashMap<>();
+
+        versions.put("original", objectKey);
+
+        var photo = photoBuilder
+                .objectKey(objectKey)
+                .sizeBytes(file.getSize())
+                .width(size.width)
+                .height(size.height)
+                .versions(versions)
+                .status(PhotoStatus.PROCESSING)
+                .build();
+        return new StoredUpload(photo, false);
+    }
+
+    private List<Photo> persistForProcessing(List<StoredUpload> uploads) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> insertForProcessing(uploads));
+        } catch (RuntimeException e) {
+            uploads.stream()
+                    .filter(upload -> upload.photo().getContentHash() != null)
+                    .forEach(upload -> releaseReservation(upload.photo().getContentHash(), objectKeysOf(upload.photo())));
+            throw e;
+        }
+    }
+
+    private List<Photo> insertForProcessing(List<StoredUpload> uploads) {
+        boolean[] needsJob = new boolean[uploads.size()];
+        for (int i = 0; i < uploads.size(); i++) {
+            var upload = uploads.get(i);
+            needsJob[i] = !upload.reused() || !refreshFromSource(upload.photo());
+        }
+
+        List<Photo> saved = photoRepository.saveAll(uploads.stream().map(StoredUpload::photo).toList());
+
+        // Every upload with a hash already holds its content reference, taken in storeOriginal.
+        List<PhotoJob> jobs = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            if (needsJob[i]) {
+                jobs.add(new PhotoJob(saved.get(i).getId()));
+            }
+        }
+        photoJobRepository.saveAll(jobs);
+        touchGalleries(saved);
+        return saved;
+    }
+
+    /**
+     * Takes the content reference before {@code original/<hash>} is written. The lock orders this against
+     * {@link StorageCleanupService}, which re-checks references under the same lock before deleting objects,
+     * so a pending deletion for the same hash either runs before the upload or is dropped.
+     */
+    private void reserveContent(String contentHash) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            photoContentRepository.lock(contentHash);
+            photoContentRepository.acquire(contentHash);
+        });
+    }
+
+    /**
+     * Takes a reference on content a dedup hit wants to share, under the same lock as {@link #reserveContent}.
+     * Returns false without taking one when the content has been released or is queued for deletion, since the
+     * reaper may already have removed its objects.
+     */
+    private boolean reserveExistingContent(String contentHash) {
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+            photoContentRepository.lock(contentHash);
+            if (!photoContentRepository.isLive(contentHash)) {
+                return false;
+            }
+            photoContentRepository.acquire(contentHash);
+            return true;
+        }));
+    }
+
+    private void releaseReservation(String contentHash, Collection<String> objectKeys) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            photoContentRepository.lock(contentHash);
+            if (releaseContent(contentHash)) {
+                storageCleanupService.scheduleDeletion(contentHash, objectKeys);
             }
+        });
+    }
 
-            var photo = photoBuilder.build();
-            var photoResult = photoRepository.save(photo);
-            return mapToPhotoResponse(photoResult);
+    /**
+     * Copies the renditions of the photo a dedup hit was taken from, as they are now rather than as they were
+     * before the upload. Returns false when the source is not READY: its job may already have updated every
+     * row sharing the hash before this one becomes visible, so the reused row needs a job of its own.
+     */
+    private boolean refreshFromSource(Photo photo) {
+        var source = photoRepository.findFirstByContentHashAndStatus(photo.getContentHash(), PhotoStatus.READY);
+        if (source.isEmpty()) {
+            photo.setStatus(PhotoStatus.PROCESSING);
+            return false;
         }
+
+        photo.setVersions(source.get().getVersions() != null ? new HashMap<>(source.get().getVersions()) : null);
+        photo.setWidth(source.get().getWidth());
+        photo.setHeight(source.get().getHeight());
+        photo.setStatus(PhotoStatus.READY);
+        return true;
+    }
+
+    /**
+     * Renders and stores the variants of the photo and of every photo sharing its content.
+     * Returns false when the photo no longer exists, so no photo was updated.
+     */
+    public boolean generateVariants(UUID photoId) throws IOException {
+        var photoResult = photoRepository.findById(photoId);
+        if (photoResult.isEmpty()) {
+            return false;
+        }
+
+        var photo = photoResult.get();
+        Path spool = Files.createTempFile("photo-variants-", ".tmp");
+
+        try {
+            downloadFromS3(photo.getObjectKey(), spool);
+
+            Dimension size = readDimensions(spool);
+            List<Integer> widths = variantWidths.stream()
+                    .filter(width -> width < size.width)
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+
+            var image = readImage(spool, subsamplingFor(size, widths));
+
+            Map<String, BufferedImage> renditions = new LinkedHashMap<>();
+            BufferedImage source = image;
+            for (int width : widths) {
+                source = resizeToWidth(source, width);
+                renditions.put(WIDTH_VERSION_PREFIX + width, source);
+            }
+            boolean smallestCoversThumb = Math.max(source.getWidth(), source.getHeight()) >= thumbSize;
+            renditions.put("thumbnail", createThumbnail(smallestCoversThumb ? source : image, thumbSize));
+
+            String variantBase = photo.getContentHash() != null ? photo.getContentHash() : photo.getId().toString();
+            Map<String, String> variantKeys = uploadRenditions(variantBase, renditions);
+
+            List<Photo> targets = photo.getContentHash() != null
+                    ? photoRepository.findByContentHash(photo.getContentHash())
+                    : photoRepository.existsById(photoId) ? List.of(photo) : List.of();
+            if (targets.isEmpty()) {
+                // Deleted while processing: its delete scheduled only the keys it knew about, not these.
+                storageCleanupService.scheduleDeletion(photo.getContentHash(), variantKeys.values());
+                return false;
+            }
+            for (Photo target : targets) {
+                Map<String, String> versions = target.getVersions() != null
+                        ? new HashMap<>(target.getVersions())
+                        : new HashMap<>();
+                versions.putAll(variantKeys);
+
+                target.setVersions(versions);
+                target.setWidth(size.width);
+                target.setHeight(size.height);
+                target.setStatus(PhotoStatus.READY);
+            }
+            photoRepository.saveAll(targets);
+            touchGalleries(targets);
+            return true;
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    /**
+     * Fails the photo and the rows sharing its content that are still waiting for renditions. Rows that are
+     * already READY keep serving theirs. Returns false when the photo no longer exists.
+     */
+    public boolean markFailed(UUID photoId) {
+        var photoResult = photoRepository.findById(photoId);
+        if (photoResult.isEmpty()) {
+            return false;
+        }
+
+        List<Photo> targets = sharingContent(photoResult.get()).stream()
+                .filter(target -> target.getStatus() != PhotoStatus.READY)
+                .toList();
+        targets.forEach(target -> target.setStatus(PhotoStatus.FAILED));
+        photoRepository.saveAll(targets);
+        touchGalleries(targets);
+        return true;
+    }
+
+    private void touchGalleries(List<Photo> photos) {
+        String[] galleries = photos.stream()
+                .map(Photo::getGalleryId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(ContentVersions::gallery)
+                .toArray(String[]::new);
+        if (galleries.length > 0) {
+            // The gallery index carries photo counts and covers, so it changes with them.
+            contentVersions.bump(ContentVersions.GALLERIES);
+            contentVersions.bump(galleries);
+        }
+    }
+
+    private List<Photo> sharingContent(Photo photo) {
+        return photo.getContentHash() != null
+                ? photoRepository.findByContentHash(photo.getContentHash())
+                : List.of(photo);
+    }
+
+    public PhotoResponse getPhoto(UUID id) {
+        return photoRepository.findById(id)
+                .map(this::mapToPhotoResponse)
+                .orElseThrow(() -> new RuntimeException("Photo not found"));
     }
 
     public List<PhotoResponse> getPhotos(UUID id) {
@@ -103,51 +515,150 @@ public class PhotoService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public void deletePhoto(UUID id) {
         var photo = photoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Photo not found"));
 
-        deletePhotoFromS3(photo);
-
         photoRepository.deleteById(id);
+        touchGalleries(List.of(photo));
+
+        if (releaseContent(photo)) {
+            storageCleanupService.scheduleDeletion(photo.getContentHash(), objectKeysOf(photo));
+        }
     }
 
+    @Transactional
     public void deletePhotosByGalleryId(UUID galleryId) {
         List<Photo> photos = photoRepository.findByGalleryIdOrderBySortOrderAsc(galleryId);
-        
-        for (Photo photo : photos) {
-            deletePhotoFromS3(photo);
+        if (photos.isEmpty()) {
+            return;
         }
-        
-        photoRepository.deleteAll(photos);
+
+        Set<String> releasedHashes = releaseContents(galleryId, photos);
+
+        photoRepository.deleteByGalleryId(galleryId);
+        contentVersions.bump(ContentVersions.GALLERIES, ContentVersions.gallery(galleryId));
+
+        photos.stream()
+                .filter(photo -> photo.getContentHash() == null || releasedHashes.contains(photo.getContentHash()))
+                .forEach(photo -> storageCleanupService.scheduleDeletion(photo.getContentHash(), objectKeysOf(photo)));
     }
 
-    private void deletePhotoFromS3(Photo photo) {
-        try {
-            if (photo.getVersions() != null) {
-                for (String key : photo.getVersions().values()) {
-                    deleteFromS3(key);
+    private boolean releaseContent(Photo photo) {
+        return photo.getContentHash() == null || releaseContent(photo.getContentHash());
+    }
+
+    private boolean releaseContent(String contentHash) {
+        photoContentRepository.release(contentHash);
+        if (photoContentRepository.findRefCount(contentHash).orElse(0) > 0) {
+            return false;
+        }
+
+        photoContentRepository.deleteById(contentHash);
+        return true;
+    }
+
+    private Set<String> releaseContents(UUID galleryId, List<Photo> photos) {
+        Set<String> hashes = photos.stream()
+                .map(Photo::getContentHash)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (hashes.isEmpty()) {
+            return Set.of();
+        }
+
+        photoContentRepository.releaseByGalleryId(galleryId);
+        Set<String> released = new HashSet<>(photoContentRepository.findUnreferenced(hashes));
+        photoContentRepository.deleteAllByIdInBatch(released);
+        return released;
+    }
+
+    private Set<String> objectKeysOf(Photo photo) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (photo.getVersions() != null) {
+            keys.addAll(photo.getVersions().values());
+        }
+        if (photo.getObjectKey() != null) {
+            keys.add(photo.getObjectKey());
+        }
+        return keys;
+    }
+
+    private Map<String, String> uploadRenditions(String variantBase, Map<String, BufferedImage> renditions) throws IOException {
+        Map<String, String> keys = new HashMap<>();
+        renditions.keySet().forEach(version -> keys.put(version, "thumbnail".equals(version)
+                ? "thumbs/" + variantBase + "_thumb.jpg"
+                : "variants/" + variantBase + "_" + version + ".jpg"));
+
+        var asyncClient = s3AsyncClient.getIfAvailable();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (asyncClient != null) {
+                // Encode on the executor too, so the renditions are encoded in parallel rather than only uploaded in parallel.
+                List<Future<?>> uploads = new ArrayList<>();
+                renditions.forEach((version, rendition) -> uploads.add(CompletableFuture
+                        .supplyAsync(() -> encodeJpegUnchecked(rendition), executor)
+                        .thenCompose(bytes -> asyncClient.putObject(
+                                putObjectRequest(keys.get(version), "image/jpeg"),
+                                AsyncRequestBody.fromBytes(bytes)))));
+                for (Future<?> upload : uploads) {
+                    awaitUpload(upload);
                 }
+                return keys;
             }
 
-            if (photo.getObjectKey() != null && 
-                (photo.getVersions() == null || !photo.getVersions().containsValue(photo.getObjectKey()))) {
-                deleteFromS3(photo.getObjectKey());
+            List<Future<String>> uploads = new ArrayList<>();
+            renditions.forEach((version, rendition) -> uploads.add(executor.submit(() -> {
+                uploadToS3(keys.get(version), RequestBody.fromBytes(encodeJpeg(rendition)), "image/jpeg");
+                return version;
+            })));
+
+            for (Future<String> upload : uploads) {
+                awaitUpload(upload);
             }
-        } catch (Exception e) {
-            System.err.println("Failed to delete photo from S3: " + e.getMessage());
+            return keys;
         }
     }
 
-    private void deleteFromS3(String key) {
+    private <T> T awaitUpload(Future<T> upload) throws IOException {
         try {
-            DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-            s3Client.deleteObject(deleteRequest);
-        } catch (Exception e) {
-            System.err.println("Failed to delete object from S3 (key: " + key + "): " + e.getMessage());
+            return upload.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading to S3", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException completion && completion.getCause() != null
+                    ? completion.getCause()
+                    : e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof S3Exception s3Exception) {
+                throw uploadFailure(s3Exception);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "jpg", outputStream)) {
+            throw new IllegalStateException("JPEG writer not found");
+        }
+        return outputStream.toByteArray();
+    }
+
+    private byte[] encodeJpegUnchecked(BufferedImage image) {
+        try {
+            return encodeJpeg(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -163,39 +674,163 @@ public class PhotoService {
             thumbWidth = (int) ((double) originalWidth * maxWidth / originalHeight);
         }
 
-        BufferedImage thumbnail = new BufferedImage(thumbWidth, thumbHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = thumbnail.createGraphics();
+        return scale(originalImage, thumbWidth, thumbHeight);
+    }
+
+    private BufferedImage resizeToWidth(BufferedImage originalImage, int width) {
+        int height = Math.max(1, (int) ((double) originalImage.getHeight() * width / originalImage.getWidth()));
+        return scale(originalImage, width, height);
+    }
+
+    private BufferedImage scale(BufferedImage originalImage, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = scaled.createGraphics();
 
         try {
             g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
             g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            g2d.drawImage(originalImage, 0, 0, thumbWidth, thumbHeight, null);
+            g2d.drawImage(originalImage, 0, 0, width, height, null);
         } finally {
             g2d.dispose();
         }
 
-        return thumbnail;
+        return scaled;
     }
 
-    private void uploadToS3(String key, byte[] content, String contentType) {
+    private String hash(MultipartFile file) throws IOException {
+        MessageDigest digest;
         try {
-            PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(contentType);
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private InputStream openPart(MultipartFile file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return fileName.contains(".") && extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+    }
+
+    private Dimension readDimensions(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            return readDimensions(input);
+        }
+    }
 
-            PutObjectRequest putObjectRequest = requestBuilder.build();
-            RequestBody requestBody = RequestBody.fromBytes(content);
+    private Dimension readDimensions(ImageInputStream input) throws IOException {
+        ImageReader reader = createReader(input);
+        try {
+            reader.setInput(input, true, true);
+            return new Dimension(reader.getWidth(0), reader.getHeight(0));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private int subsamplingFor(Dimension size, List<Integer> widths) {
+        int thumbWidth = size.width >= size.height
+                ? thumbSize
+                : (int) Math.ceil((double) thumbSize * size.width / size.height);
+        int requiredWidth = Math.max(thumbWidth, widths.isEmpty() ? 0 : widths.get(0));
+        return requiredWidth > 0 ? Math.max(1, size.width / requiredWidth) : 1;
+    }
 
-            s3Client.putObject(putObjectRequest, requestBody);
-        } catch (software.amazon.awssdk.services.s3.model.S3Exception e) {
-            throw new RuntimeException("Failed to upload to S3: " + e.getMessage() +
-                    " (Status: " + e.statusCode() + ", Request ID: " + e.requestId() + ")", e);
+    private BufferedImage readImage(Path source, int subsampling) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            ImageReader reader = createReader(input);
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
         }
     }
 
+    private ImageReader createReader(ImageInputStream input) {
+        Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+        if (readers == null || !readers.hasNext()) {
+            throw new IllegalArgumentException("Wrong image format");
+        }
+        return readers.next();
+    }
+
+    private void downloadFromS3(String key, Path target) throws IOException {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+
+        try (InputStream inputStream = s3Client.getObject(getObjectRequest)) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void uploadToS3(String key, RequestBody requestBody, String contentType) {
+        try {
+            s3Client.putObject(putObjectRequest(key, contentType), requestBody);
+        } catch (S3Exception e) {
+            throw uploadFailure(e);
+        }
+    }
+
+    private PutObjectRequest putObjectRequest(String key, String contentType) {
+        return PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+    }
+
+    private RuntimeException uploadFailure(S3Exception e) {
+        return new RuntimeException("Failed to upload to S3: " + e.getMessage() +
+                " (Status: " + e.statusCode() + ", Request ID: " + e.requestId() + ")", e);
+    }
+
+    private String buildSrcset(Photo photo) {
+        if (photo.getVersions() == null) {
+            return null;
+        }
+
+        List<String> candidates = new ArrayList<>();
+        photo.getVersions().entrySet().stream()
+                .filter(version -> version.getKey().matches(WIDTH_VERSION_PREFIX + "\\d+"))
+                .sorted(Comparator.comparingInt(version -> Integer.parseInt(version.getKey().substring(1))))
+                .forEach(version -> {
+                    String url = s3UrlService.getPublicUrl(version.getValue());
+                    if (url != null) {
+                        candidates.add(url + " " + version.getKey().substring(1) + "w");
+                    }
+                });
+
+        String originalUrl = s3UrlService.getPublicUrl(photo.getObjectKey());
+        if (originalUrl != null && photo.getWidth() != null) {
+            candidates.add(originalUrl + " " + photo.getWidth() + "w");
+        }
+
+        return candidates.isEmpty() ? null : String.join(", ", candidates);
+    }
+
     private PhotoResponse mapToPhotoResponse(Photo photo) {
         Map<String, String> versionUrls = new HashMap<>();
         if (photo.getVersions() != null) {
@@ -218,11 +853,16 @@ public class PhotoService {
                 .height(photo.getHeight())
                 .versions(versionUrls.isEmpty() ? photo.getVersions() : versionUrls)
                 .versionKeys(photo.getVersions())
+                .srcset(buildSrcset(photo))
                 .galleryId(photo.getGalleryId())
                 .caption(photo.getCaption())
                 .altText(photo.getAltText())
                 .sortOrder(photo.getSortOrder())
+                .status(photo.getStatus())
                 .createdAt(photo.getCreatedAt())
                 .build();
     }
+
+    private record StoredUpload(Photo photo, boolean reused) {
+    }
 }
@@ -14,11 +14,16 @@ import de.dsm.backend.repositories.BlockRepository;
 import de.dsm.backend.repositories.ReenactmentCategoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +34,51 @@ public class ReenactmentService {
     private final ReenactmentCategoryRepository categoryRepository;
     private final PhotoService photoService;
     private final S3UrlService s3UrlService;
+    private final ContentVersions contentVersions;
 
+    private final AtomicLong groupedVersion = new AtomicLong();
+    private final AtomicReference<GroupedSnapshot> groupedSnapshot = new AtomicReference<>();
+
+    /**
+     * Served from an immutable snapshot that is rebuilt on the first read after a block or category changes,
+     * so public reads neither lock nor query the database in between.
+     */
     public List<BlocksByCategoryResponse> getBlocksGroupedByCategory() {
+        var snapshot = groupedSnapshot.get();
+        if (snapshot != null && snapshot.version() == groupedVersion.get()) {
+            return snapshot.blocks();
+        }
+        return rebuildGroupedSnapshot();
+    }
+
+    private List<BlocksByCategoryResponse> rebuildGroupedSnapshot() {
+        long version = groupedVersion.get();
+        var rebuilt = new GroupedSnapshot(version, loadBlocksGroupedByCategory());
+        groupedSnapshot.accumulateAndGet(rebuilt,
+                (current, candidate) -> current == null || current.version() < candidate.version() ? candidate : current);
+        return rebuilt.blocks();
+    }
+
+    /**
+     * Only marks the snapshot stale; the next read rebuilds it. The write has already committed by then,
+     * so a failing rebuild surfaces on that read instead of turning a successful write into an error.
+     */
+    private void invalidateGroupedSnapshot() {
+        contentVersions.bump(ContentVersions.REENACTMENT);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Advancing inside the transaction would let a concurrent read cache rows that may still roll back.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    groupedVersion.incrementAndGet();
+                }
+            });
+        } else {
+            groupedVersion.incrementAndGet();
+        }
+    }
+
+    private List<BlocksByCategoryResponse> loadBlocksGroupedByCategory() {
         List<ReenactmentCategory> categories = categoryRepository.findAllByOrderBySortOrderAsc();
         List<Block> allBlocks = blockRepository.findAllByOrderBySortOrderAsc();
 
@@ -46,7 +94,7 @@ public class ReenactmentService {
                     cat.getCode(),
                     Map.of("de", cat.getNameDe(), "en", cat.getNameEn(), "fr", cat.getNameFr()),
                     cat.getSortOrder(),
-                    blocks.stream().map(this::toBlockListResponse).toList()
+                    blocks.stream().map(b -> toBlockListResponse(b, cat.getCode())).toList()
             ));
         }
 
@@ -57,11 +105,11 @@ public class ReenactmentService {
                     "other",
                     Map.of("de", "Sonstige", "en", "Other", "fr", "Autre"),
                     999,
-                    uncategorized.stream().map(this::toBlockListResponse).toList()
+                    uncategorized.stream().map(b -> toBlockListResponse(b, null)).toList()
             ));
         }
 
-        return result;
+        return List.copyOf(result);
     }
 
     public List<CategoryResponse> getCategories() {
@@ -85,6 +133,7 @@ public class ReenactmentService {
         cat.setNameFr(request.nameFr());
         cat.setSortOrder(request.sortOrder() != null ? request.sortOrder() : 0);
         cat = categoryRepository.save(cat);
+        invalidateGroupedSnapshot();
         return new CategoryResponse(
                 cat.getId(),
                 cat.getCode(),
@@ -100,6 +149,7 @@ public class ReenactmentService {
         if (request.nameFr() != null) cat.setNameFr(request.nameFr());
         if (request.sortOrder() != null) cat.setSortOrder(request.sortOrder());
         cat = categoryRepository.save(cat);
+        invalidateGroupedSnapshot();
         return new CategoryResponse(
                 cat.getId(),
                 cat.getCode(),
@@ -112,6 +162,7 @@ public class ReenactmentService {
             throw new RuntimeException("Category not found");
         }
         categoryRepository.deleteById(id);
+        invalidateGroupedSnapshot();
     }
 
     public BlockDetailResponse getBlockById(UUID id) {
@@ -140,6 +191,7 @@ public class ReenactmentService {
         block.setCategoryId(request.categoryId());
         block.setSortOrder(request.sortOrder() != null ? request.sortOrder() : 0);
         block = blockRepository.save(block);
+        invalidateGroupedSnapshot();
         return toBlockResponse(block);
     }
 
@@ -152,27 +204,27 @@ public class ReenactmentService {
         if (request.sortOrder() != null) block.setSortOrder(request.sortOrder());
         if (request.image() != null) block.setImage(request.image());
         block = blockRepository.save(block);
+        invalidateGroupedSnapshot();
         return toBlockResponse(block);
     }
 
+    @Transactional
     public void deleteBlock(UUID id) {
         if (!blockRepository.existsById(id)) {
             throw new RuntimeException("Block not found");
         }
         photoService.deletePhotosByGalleryId(id);
         blockRepository.deleteById(id);
+        invalidateGroupedSnapshot();
     }
 
-    private BlockListResponse toBlockListResponse(Block b) {
-        ReenactmentCategory cat = b.getCategoryId() != null
-                ? categoryRepository.findById(b.getCategoryId()).orElse(null)
-                : null;
+    private BlockListResponse toBlockListResponse(Block b, String categoryCode) {
         return new BlockListResponse(
                 b.getId(),
                 b.getTitle(),
                 s3UrlService.getPublicUrl(b.getImage()),
                 b.getCategoryId(),
-                cat != null ? cat.getCode() : null,
+                categoryCode,
                 b.getSortOrder()
         );
     }
@@ -191,4 +243,7 @@ public class ReenactmentService {
                 b.getSortOrder()
         );
     }
+
+    private record GroupedSnapshot(long version, List<BlocksByCategoryResponse> blocks) {
+    }
 }
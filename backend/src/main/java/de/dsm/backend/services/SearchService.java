@@ -0,0 +1,50 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.SearchResultResponse;
+import de.dsm.backend.models.projections.SearchHit;
+import de.dsm.backend.repositories.SearchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private static final Map<String, String> CONFIGURATIONS = Map.of(
+            "de", "german",
+            "en", "english",
+            "fr", "french");
+
+    private final SearchRepository searchRepository;
+
+    public Page<SearchResultResponse> search(String query, String lang, Pageable pageable) {
+        String config = CONFIGURATIONS.get(lang);
+        if (config == null) {
+            throw new IllegalArgumentException("Unsupported search language: " + lang);
+        }
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+
+        String trimmed = query.trim();
+        List<SearchResultResponse> hits = searchRepository
+                .search(config, trimmed, pageable.getPageSize(), pageable.getOffset()).stream()
+                .map(this::mapToResponse)
+                .toList();
+        // A short first page already tells the total, so only count when it might be larger.
+        long total = pageable.getOffset() == 0 && hits.size() < pageable.getPageSize()
+                ? hits.size()
+                : searchRepository.count(config, trimmed);
+        return new PageImpl<>(hits, pageable, total);
+    }
+
+    private SearchResultResponse mapToResponse(SearchHit hit) {
+        return new SearchResultResponse(hit.type(), hit.id(), hit.parentId(), hit.title(), hit.snippet(), hit.rank());
+    }
+}
@@ -0,0 +1,174 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.entity.StorageDeletion;
+import de.dsm.backend.repositories.PhotoContentRepository;
+import de.dsm.backend.repositories.StorageDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StorageCleanupService {
+
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final S3Client s3Client;
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final PhotoContentRepository photoContentRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${storage.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${storage.cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${storage.cleanup.lease:5m}")
+    private Duration lease;
+
+    @Value("${storage.cleanup.retry-backoff:1m}")
+    private Duration retryBackoff;
+
+    @Value("${storage.cleanup.max-backoff:6h}")
+    private Duration maxBackoff;
+
+    /**
+     * Queues the keys for deletion in the caller's transaction, so they are only
+     * removed from S3 once the rows referencing them are gone.
+     */
+    public void scheduleDeletion(String contentHash, Collection<String> keys) {
+        storageDeletionRepository.saveAll(keys.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(key -> new StorageDeletion(key, contentHash))
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${storage.cleanup.poll-interval:30s}")
+    public void processPendingDeletions() {
+        List<StorageDeletion> deletions;
+        do {
+            deletions = new TransactionTemplate(transactionManager).execute(status -> claimDeletions());
+            if (deletions == null || deletions.isEmpty()) {
+                return;
+            }
+            runDeletions(deletions);
+        } while (deletions.size() == batchSize);
+    }
+
+    private List<StorageDeletion> claimDeletions() {
+        int reacquired = storageDeletionRepository.deleteReacquired();
+        if (reacquired > 0) {
+            log.info("Dropped {} pending storage deletions for content that was uploaded again", reacquired);
+        }
+
+        var now = LocalDateTime.now();
+        var deletions = storageDeletionRepository.findDue(now, batchSize);
+        deletions.forEach(deletion -> deletion.lease(now.plus(lease)));
+        return storageDeletionRepository.saveAll(deletions);
+    }
+
+    /**
+     * Runs in one transaction that holds the content lock of every hash in the batch across the S3 call, so
+     * an upload that reserves one of these hashes either waits for the delete or is seen here and spared.
+     */
+    void runDeletions(List<StorageDeletion> deletions) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<String> hashes = deletions.stream()
+                    .map(StorageDeletion::getContentHash)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .toList();
+            hashes.forEach(photoContentRepository::lock);
+            Set<String> reacquired = hashes.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(photoContentRepository.findExisting(hashes));
+
+            List<StorageDeletion> pending = deletions.stream()
+                    .filter(deletion -> !reacquired.contains(deletion.getContentHash()))
+                    .toList();
+            Set<String> failedKeys = new HashSet<>(deleteObjects(pending.stream()
+                    .map(StorageDeletion::getObjectKey)
+                    .toList()));
+
+            List<StorageDeletion> done = new ArrayList<>();
+            List<StorageDeletion> failed = new ArrayList<>();
+            var now = LocalDateTime.now();
+            for (StorageDeletion deletion : deletions) {
+                if (failedKeys.contains(deletion.getObjectKey()) && !reacquired.contains(deletion.getContentHash())) {
+                    deletion.retryAt(now.plus(backoffFor(deletion.getAttempts())), "Delete failed");
+                    failed.add(deletion);
+                } else {
+                    done.add(deletion);
+                }
+            }
+
+            storageDeletionRepository.deleteAllInBatch(done);
+            storageDeletionRepository.saveAll(failed);
+        });
+    }
+
+    private Duration backoffFor(int attempts) {
+        var backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * Deletes the given keys with multi-object deletes of up to 1000 keys each.
+     * Returns the keys that could not be deleted.
+     */
+    public List<String> deleteObjects(Collection<String> keys) {
+        List<String> distinctKeys = keys.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        List<String> failedKeys = new ArrayList<>();
+
+        for (int from = 0; from < distinctKeys.size(); from += MAX_KEYS_PER_REQUEST) {
+            List<String> chunk = distinctKeys.subList(from, Math.min(from + MAX_KEYS_PER_REQUEST, distinctKeys.size()));
+            try {
+                var response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder()
+                                .objects(chunk.stream()
+                                        .map(key -> ObjectIdentifier.builder().key(key).build())
+                                        .toList())
+                                .quiet(true)
+                                .build())
+                        .build());
+
+                for (S3Error error : response.errors()) {
+                    log.warn("Failed to delete object from S3 (key: {}): {} {}", error.key(), error.code(), error.message());
+                    failedKeys.add(error.key());
+                }
+            } catch (SdkException e) {
+                log.warn("Failed to delete {} objects from S3: {}", chunk.size(), e.getMessage());
+                failedKeys.addAll(chunk);
+            }
+        }
+
+        return failedKeys;
+    }
+}
@@ -0,0 +1,85 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.repositories.ContactRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Number of unread contact messages, kept in memory so polling it does not touch the database.
+ * Writers report their changes as deltas, applied once their transaction commits; a periodic
+ * recount against the table corrects any drift, e.g. from writes of other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadContactCounter {
+
+    private final ContactRepository contactRepository;
+
+    private long count;
+    private long changes;
+    private boolean loaded;
+
+    public long get() {
+        synchronized (this) {
+            if (loaded) {
+                return count;
+            }
+        }
+        reconcile();
+        synchronized (this) {
+            return count;
+        }
+    }
+
+    public void increment() {
+        adjust(1);
+    }
+
+    public void decrement() {
+        adjust(-1);
+    }
+
+    @Scheduled(fixedDelayString = "${contact.unread-count.reconcile-interval:5m}")
+    public void reconcile() {
+        long seen;
+        synchronized (this) {
+            seen = changes;
+        }
+        long actual = contactRepository.countByReadFalse();
+        synchronized (this) {
+            // A delta applied while counting may or may not be in the result; keep the
+            // incrementally maintained value then and leave the correction to the next run.
+            if (changes != seen && loaded) {
+                return;
+            }
+            if (loaded && count != actual) {
+                log.info("Unread contact count corrected from {} to {}", count, actual);
+            }
+            count = actual;
+            loaded = true;
+        }
+    }
+
+    private void adjust(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private synchronized void apply(long delta) {
+        count = Math.max(0, count + delta);
+        changes++;
+    }
+}
@@ -10,6 +10,22 @@ CREATE TABLE IF NOT EXISTS contacts (
 
 CREATE INDEX IF NOT EXISTS idx_contacts_email ON contacts(email);
 
+-- Contact.read used to be mapped to a separate "read" column; carry its state over to is_read.
+-- Runs only while that column still exists. The body is single-quoted rather than $$-quoted because
+-- the script splitter does not understand dollar quoting and would split on the inner semicolons.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''contacts'' AND column_name = ''read'') THEN
+        UPDATE contacts SET is_read = TRUE WHERE "read" AND NOT is_read;
+        ALTER TABLE contacts DROP COLUMN "read";
+    END IF;
+END
+';
+
+CREATE INDEX IF NOT EXISTS idx_contacts_created_at_id ON contacts(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_contacts_unread_created_at_id ON contacts(created_at DESC, id DESC) WHERE is_read = FALSE;
+
 CREATE TABLE IF NOT EXISTS events (
     id UUID PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
@@ -21,6 +37,8 @@ CREATE TABLE IF NOT EXISTS events (
     updated_at TIMESTAMP
 );
 
+CREATE INDEX IF NOT EXISTS idx_events_date_id ON events(date DESC NULLS LAST, id DESC);
+
 CREATE TABLE IF NOT EXISTS galleries (
     id UUID PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
@@ -33,12 +51,13 @@ CREATE TABLE IF NOT EXISTS galleries (
 
 CREATE TABLE IF NOT EXISTS photos (
     id UUID PRIMARY KEY,
-    object_key VARCHAR(500) NOT NULL UNIQUE,
+    object_key VARCHAR(500) NOT NULL,
     bucket VARCHAR(255) NOT NULL,
 
     original_name VARCHAR(255) NOT NULL,
     content_type VARCHAR(100) NOT NULL,
     size_bytes BIGINT,
+    content_hash VARCHAR(64),
     width INTEGER,
     height INTEGER,
     versions JSONB,
@@ -48,11 +67,93 @@ CREATE TABLE IF NOT EXISTS photos (
     caption VARCHAR(255),
     alt_text VARCHAR(255),
     sort_order INTEGER DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'READY',
 
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'READY';
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- Deduplicated uploads share original/<hash>, so object_key can no longer be unique. Drops whichever
+-- unique constraint or plain unique index covers object_key alone, whatever it was named: photos_object_key_key
+-- when the table came from this script, UK... when Hibernate created it. Partial unique indexes are kept.
+DO '
+DECLARE
+    stale RECORD;
+BEGIN
+    FOR stale IN
+        SELECT con.conname FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attname = ''object_key''
+        WHERE con.conrelid = ''photos''::regclass AND con.contype = ''u'' AND con.conkey = ARRAY[att.attnum]
+    LOOP
+        EXECUTE format(''ALTER TABLE photos DROP CONSTRAINT %I'', stale.conname);
+    END LOOP;
+    FOR stale IN
+        SELECT idx.relname FROM pg_index ind
+        JOIN pg_class idx ON idx.oid = ind.indexrelid
+        JOIN pg_attribute att ON att.attrelid = ind.indrelid AND att.attname = ''object_key''
+        WHERE ind.indrelid = ''photos''::regclass AND ind.indisunique AND ind.indpred IS NULL
+          AND ind.indkey::int2[] = ARRAY[att.attnum]
+    LOOP
+        EXECUTE format(''DROP INDEX %I'', stale.relname);
+    END LOOP;
+END
+';
+
+-- Direct uploads own their uploads/<uuid> object outright (no content hash, no refcount), so each key
+-- may be finalized into exactly one row.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_photos_direct_upload_object_key ON photos(object_key) WHERE content_hash IS NULL;
 CREATE INDEX IF NOT EXISTS idx_photos_gallery_id ON photos(gallery_id);
+CREATE INDEX IF NOT EXISTS idx_photos_content_hash ON photos(content_hash);
+
+CREATE TABLE IF NOT EXISTS photo_contents (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS photo_jobs (
+    id UUID PRIMARY KEY,
+    photo_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_photo_jobs_status_next_attempt ON photo_jobs(status, next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS storage_deletions (
+    id UUID PRIMARY KEY,
+    object_key VARCHAR(500) NOT NULL,
+    content_hash VARCHAR(64),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_next_attempt ON storage_deletions(next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_content_hash ON storage_deletions(content_hash);
+
+CREATE TABLE IF NOT EXISTS contact_mail_outbox (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE contact_mail_outbox ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+DROP INDEX IF EXISTS idx_contact_mail_outbox_next_attempt;
+CREATE INDEX IF NOT EXISTS idx_contact_mail_outbox_status_next_attempt ON contact_mail_outbox(status, next_attempt_at);
 
 CREATE TABLE IF NOT EXISTS reenactment_categories (
     id UUID PRIMARY KEY,
@@ -75,4 +176,28 @@ CREATE TABLE IF NOT EXISTS blocks (
 );
 
 CREATE INDEX IF NOT EXISTS idx_blocks_sort_order ON blocks(sort_order);
-CREATE INDEX IF NOT EXISTS idx_blocks_category_id ON blocks(category_id);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_blocks_category_id ON blocks(category_id);
+
+-- Full-text search: German, English and French lexemes of each searchable text, titles weighted above bodies.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(title, '')) || to_tsvector('english', coalesce(title, '')) || to_tsvector('french', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('german', coalesce(text, '')) || to_tsvector('english', coalesce(text, '')) || to_tsvector('french', coalesce(text, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_events_search ON events USING GIN (search_vector);
+
+ALTER TABLE galleries ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(title, '')) || to_tsvector('english', coalesce(title, '')) || to_tsvector('french', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('german', coalesce(description, '')) || to_tsvector('english', coalesce(description, '')) || to_tsvector('french', coalesce(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_galleries_search ON galleries USING GIN (search_vector);
+
+ALTER TABLE blocks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(title, '')) || to_tsvector('english', coalesce(title, '')) || to_tsvector('french', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('german', coalesce(text, '')) || to_tsvector('english', coalesce(text, '')) || to_tsvector('french', coalesce(text, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_blocks_search ON blocks USING GIN (search_vector);
+
+ALTER TABLE photos ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(caption, '')) || to_tsvector('english', coalesce(caption, '')) || to_tsvector('french', coalesce(caption, '')), 'A')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_photos_search ON photos USING GIN (search_vector);
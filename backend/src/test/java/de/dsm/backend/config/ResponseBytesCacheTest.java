@@ -0,0 +1,133 @@
+package de.dsm.backend.config;
+
+import de.dsm.backend.services.ContentVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBytesCacheTest {
+
+    private ContentVersions contentVersions;
+    private ResponseBytesCache responseBytesCache;
+    private AtomicInteger renders;
+    private Supplier<List<String>> body;
+
+    @BeforeEach
+    void setUp() {
+        contentVersions = new ContentVersions();
+        responseBytesCache = new ResponseBytesCache(JsonMapper.builder().build(), contentVersions);
+        ReflectionTestUtils.setField(responseBytesCache, "maxEntries", 16);
+        renders = new AtomicInteger();
+        body = () -> {
+            renders.incrementAndGet();
+            return List.of("first", "second");
+        };
+    }
+
+    @Test
+    void writeIdentityJson() throws IOException {
+        MockHttpServletResponse response = get(null, "0");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("[\"first\",\"second\"]", response.getContentAsString());
+        assertEquals(contentVersions.current(ContentVersions.EVENTS).etag(), response.getHeader("ETag"));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void writeGzipJson() throws IOException {
+        MockHttpServletResponse response = get("gzip, deflate, br", "0");
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("[\"first\",\"second\"]", new String(gzip.readAllBytes()));
+        }
+    }
+
+    @Test
+    void writeIdentityWhenGzipIsRefused() throws IOException {
+        MockHttpServletResponse response = get("gzip;q=0, identity", "0");
+
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    void renderOncePerVersionAndQuery() throws IOException {
+        get("gzip", "0");
+        get(null, "0");
+        assertEquals(1, renders.get());
+
+        get(null, "1");
+        assertEquals(2, renders.get());
+
+        contentVersions.bump(ContentVersions.EVENTS);
+        get(null, "0");
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedEntryOnly() throws IOException {
+        ReflectionTestUtils.setField(responseBytesCache, "maxEntries", 2);
+        get(null, "0");
+        get(null, "1");
+        get(null, "0");
+        get(null, "2");
+        assertEquals(3, renders.get());
+
+        get(null, "0");
+        assertEquals(3, renders.get());
+
+        get(null, "1");
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void varyKeepsHeadersSetByCors() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.addHeader("Vary", "Origin");
+        response.addHeader("Vary", "Access-Control-Request-Method");
+
+        responseBytesCache.write(request, response, ContentVersions.EVENTS, "0", body);
+
+        assertEquals(List.of("Origin", "Access-Control-Request-Method", "Accept-Encoding"), response.getHeaders("Vary"));
+    }
+
+    @Test
+    void notModifiedSkipsRendering() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.addHeader("If-None-Match", contentVersions.current(ContentVersions.EVENTS).etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        responseBytesCache.write(request, response, ContentVersions.EVENTS, "0", body);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(0, renders.get());
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, String queryKey) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseBytesCache.write(request, response, ContentVersions.EVENTS, queryKey, body);
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package de.dsm.backend.config.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedStorageAccessTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void evictsLeastRecentlyUsedEntryBeyondMaxEntries() {
+        var storage = new BoundedStorageAccess(2, Duration.ZERO, clock::get);
+
+        storage.putIntoCache("a", 1, null);
+        storage.putIntoCache("b", 2, null);
+        storage.getFromCache("a", null);
+        storage.putIntoCache("c", 3, null);
+
+        assertEquals(2, storage.size());
+        assertEquals(1, storage.getFromCache("a", null));
+        assertNull(storage.getFromCache("b", null));
+        assertEquals(3, storage.getFromCache("c", null));
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        var storage = new BoundedStorageAccess(10, Duration.ofMinutes(10), clock::get);
+
+        storage.putIntoCache("a", 1, null);
+        clock.addAndGet(Duration.ofMinutes(9).toNanos());
+        assertTrue(storage.contains("a"));
+        assertEquals(1, storage.getFromCache("a", null));
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertFalse(storage.contains("a"));
+        assertNull(storage.getFromCache("a", null));
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    void zeroTtlNeverExpires() {
+        var storage = new BoundedStorageAccess(10, Duration.ZERO, clock::get);
+
+        storage.putIntoCache("a", 1, null);
+        clock.addAndGet(Duration.ofDays(365).toNanos());
+
+        assertEquals(1, storage.getFromCache("a", null));
+    }
+
+    @Test
+    void evictDataClearsRegion() {
+        var storage = new BoundedStorageAccess(10, Duration.ZERO, clock::get);
+        storage.putIntoCache("a", 1, null);
+        storage.putIntoCache("b", 2, null);
+
+        storage.evictData("a");
+        assertNull(storage.getFromCache("a", null));
+        assertEquals(2, storage.getFromCache("b", null));
+
+        storage.evictData();
+        assertEquals(0, storage.size());
+    }
+}
@@ -0,0 +1,180 @@
+package de.dsm.backend.repositories;
+
+import de.dsm.backend.models.entity.Block;
+import de.dsm.backend.models.entity.Event;
+import de.dsm.backend.models.entity.Gallery;
+import de.dsm.backend.models.entity.ReenactmentCategory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the PostgreSQL instance configured through the usual DSM_DB_* variables, since
+ * the schema relies on jsonb and lateral joins. Every read goes through the repositories outside
+ * a transaction, so each call gets a fresh persistence context and only the second-level cache
+ * can answer a repeat read without SQL.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=${DSM_JPA_HIBERNATE_DDL_AUTO:none}")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "DSM_DB_HOST", matches = ".+")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private GalleryRepository galleryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ReenactmentCategoryRepository categoryRepository;
+    @Autowired
+    private BlockRepository blockRepository;
+
+    private final List<Runnable> cleanup = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanup.reversed().forEach(Runnable::run);
+        cleanup.clear();
+    }
+
+    @Test
+    void repeatGalleryFindByIdIsServedFromCache() {
+        var gallery = galleryRepository.save(new Gallery("Cache test", null, null, true));
+        cleanup.add(() -> galleryRepository.deleteById(gallery.getId()));
+
+        assertRepeatReadIssuesNoSql(() -> galleryRepository.findById(gallery.getId()).orElseThrow());
+    }
+
+    @Test
+    void repeatEventFindByIdIsServedFromCache() {
+        var event = new Event();
+        event.setTitle("Cache test");
+        var saved = eventRepository.save(event);
+        cleanup.add(() -> eventRepository.deleteById(saved.getId()));
+
+        assertRepeatReadIssuesNoSql(() -> eventRepository.findById(saved.getId()).orElseThrow());
+    }
+
+    @Test
+    void repeatCategoryFindByIdIsServedFromCache() {
+        var category = categoryRepository.save(newCategory());
+        cleanup.add(() -> categoryRepository.deleteById(category.getId()));
+
+        assertRepeatReadIssuesNoSql(() -> categoryRepository.findById(category.getId()).orElseThrow());
+    }
+
+    @Test
+    void repeatBlockFindByIdIsServedFromCache() {
+        var block = blockRepository.save(newBlock(null));
+        cleanup.add(() -> blockRepository.deleteById(block.getId()));
+
+        assertRepeatReadIssuesNoSql(() -> blockRepository.findById(block.getId()).orElseThrow());
+    }
+
+    @Test
+    void repeatCategoryListIsServedFromQueryCache() {
+        var category = categoryRepository.save(newCategory());
+        cleanup.add(() -> categoryRepository.deleteById(category.getId()));
+
+        assertRepeatQueryIssuesNoSql(categoryRepository::findAllByOrderBySortOrderAsc);
+    }
+
+    @Test
+    void repeatBlockListIsServedFromQueryCache() {
+        var category = categoryRepository.save(newCategory());
+        cleanup.add(() -> categoryRepository.deleteById(category.getId()));
+        var block = blockRepository.save(newBlock(category.getId()));
+        cleanup.add(() -> blockRepository.deleteById(block.getId()));
+
+        assertRepeatQueryIssuesNoSql(blockRepository::findAllByOrderBySortOrderAsc);
+    }
+
+    @Test
+    void repeatEventSummaryListIsServedFromQueryCache() {
+        var event = new Event();
+        event.setTitle("Cache test");
+        var saved = eventRepository.save(event);
+        cleanup.add(() -> eventRepository.deleteById(saved.getId()));
+
+        assertRepeatQueryIssuesNoSql(
+                () -> eventRepository.findSummariesOrderByDateDesc(Pageable.unpaged()).getContent());
+    }
+
+    private void assertRepeatReadIssuesNoSql(Supplier<?> read) {
+        coldStart();
+
+        var first = read.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements > 0, "first read should load from the database");
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+
+        var second = read.get();
+        assertEquals(first, second);
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    private void assertRepeatQueryIssuesNoSql(Supplier<List<?>> query) {
+        coldStart();
+
+        var first = query.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertFalse(first.isEmpty());
+        assertTrue(statements > 0, "first query should run against the database");
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCachePutCount());
+
+        var second = query.get();
+        assertEquals(first, second);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    private void coldStart() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        statistics.clear();
+    }
+
+    private static ReenactmentCategory newCategory() {
+        var category = new ReenactmentCategory();
+        category.setCode("cache-" + UUID.randomUUID());
+        category.setNameDe("Cache");
+        category.setNameEn("Cache");
+        category.setNameFr("Cache");
+        return category;
+    }
+
+    private static Block newBlock(UUID categoryId) {
+        var block = new Block();
+        block.setTitle("Cache test");
+        block.setCategoryId(categoryId);
+        return block;
+    }
+}
@@ -0,0 +1,154 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.entity.ContactMailOutbox;
+import de.dsm.backend.models.entity.ContactMailStatus;
+import de.dsm.backend.models.mails.ContactMailData;
+import de.dsm.backend.repositories.ContactMailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactMailOutboxServiceTest {
+
+    @Mock
+    private ContactMailOutboxRepository contactMailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ContactMailOutboxService contactMailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(contactMailOutboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(contactMailOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(contactMailOutboxService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(contactMailOutboxService, "retryBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(contactMailOutboxService, "maxBackoff", Duration.ofHours(1));
+    }
+
+    @Test
+    void enqueueStoresMailWithoutSending() {
+        contactMailOutboxService.enqueue(new ContactMailData("John Doe", "john@example.com", "Hello"));
+
+        ArgumentCaptor<ContactMailOutbox> captor = ArgumentCaptor.forClass(ContactMailOutbox.class);
+        verify(contactMailOutboxRepository, times(1)).save(captor.capture());
+        assertEquals(new ContactMailData("John Doe", "john@example.com", "Hello"), captor.getValue().toMailData());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void dispatchPendingSendsBatchRemovesSentAndReschedulesFailed() {
+        ContactMailOutbox sent = new ContactMailOutbox(new ContactMailData("A", "a@example.com", "first"));
+        ContactMailOutbox failed = new ContactMailOutbox(new ContactMailData("B", "b@example.com", "second"));
+        MimeMessage sentMessage = new MimeMessage((Session) null);
+        MimeMessage failedMessage = new MimeMessage((Session) null);
+        when(contactMailOutboxRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(sent, failed));
+        when(contactMailOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(emailService.createContactMessage(sent.toMailData())).thenReturn(sentMessage);
+        when(emailService.createContactMessage(failed.toMailData())).thenReturn(failedMessage);
+        doThrow(new MailSendException(Map.of(failedMessage, new MessagingException("SMTP down"))))
+                .when(emailService).send(List.of(sentMessage, failedMessage));
+
+        LocalDateTime before = LocalDateTime.now();
+        contactMailOutboxService.dispatchPending();
+
+        verify(emailService, times(1)).send(anyList());
+        verify(contactMailOutboxRepository, times(1)).deleteAllInBatch(List.of(sent));
+        verify(contactMailOutboxRepository, times(1)).saveAll(List.of(failed));
+        assertEquals(1, failed.getAttempts());
+        assertEquals("SMTP down", failed.getLastError());
+        assertFalse(failed.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        assertTrue(failed.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+    }
+
+    @Test
+    void dispatchPendingReschedulesWholeBatchWhenServerUnavailable() {
+        ContactMailOutbox first = new ContactMailOutbox(new ContactMailData("A", "a@example.com", "first"));
+        ContactMailOutbox second = new ContactMailOutbox(new ContactMailData("B", "b@example.com", "second"));
+        when(contactMailOutboxRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(first, second));
+        when(contactMailOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(emailService.createContactMessage(any())).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doThrow(new MailAuthenticationException("Bad credentials")).when(emailService).send(anyList());
+
+        contactMailOutboxService.dispatchPending();
+
+        verify(contactMailOutboxRepository, times(1)).deleteAllInBatch(List.of());
+        assertEquals("Bad credentials", first.getLastError());
+        assertEquals("Bad credentials", second.getLastError());
+    }
+
+    @Test
+    void dispatchPendingSendsRestOfBatchWhenOneMailCannotBePrepared() {
+        ContactMailOutbox poison = new ContactMailOutbox(new ContactMailData("A", "not an address", "first"));
+        ContactMailOutbox healthy = new ContactMailOutbox(new ContactMailData("B", "b@example.com", "second"));
+        MimeMessage healthyMessage = new MimeMessage((Session) null);
+        when(contactMailOutboxRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(poison, healthy));
+        when(contactMailOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(emailService.createContactMessage(poison.toMailData())).thenThrow(new MailPreparationException("Illegal address"));
+        when(emailService.createContactMessage(healthy.toMailData())).thenReturn(healthyMessage);
+
+        contactMailOutboxService.dispatchPending();
+
+        verify(emailService, times(1)).send(List.of(healthyMessage));
+        verify(contactMailOutboxRepository, times(1)).deleteAllInBatch(List.of(healthy));
+        verify(contactMailOutboxRepository, times(1)).saveAll(List.of(poison));
+        assertEquals(ContactMailStatus.PENDING, poison.getStatus());
+        assertEquals("Illegal address", poison.getLastError());
+    }
+
+    @Test
+    void mailFailsPermanentlyAfterMaxAttempts() {
+        ContactMailOutbox poison = new ContactMailOutbox(new ContactMailData("A", "not an address", "first"));
+        LocalDateTime now = LocalDateTime.now();
+        poison.lease(now);
+        poison.lease(now);
+        poison.lease(now);
+        when(emailService.createContactMessage(poison.toMailData())).thenThrow(new MailPreparationException("Illegal address"));
+
+        contactMailOutboxService.sendMails(List.of(poison));
+
+        assertEquals(ContactMailStatus.FAILED, poison.getStatus());
+        verify(emailService, never()).send(anyList());
+        verify(contactMailOutboxRepository, times(1)).saveAll(List.of(poison));
+    }
+
+    @Test
+    void dispatchPendingWithNothingDue() {
+        when(contactMailOutboxRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+        when(contactMailOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        contactMailOutboxService.dispatchPending();
+
+        verifyNoInteractions(emailService);
+        verify(contactMailOutboxRepository, never()).deleteAllInBatch(any());
+    }
+}
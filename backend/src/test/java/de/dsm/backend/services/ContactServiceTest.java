@@ -1,8 +1,10 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.ContactCursorPageResponse;
 import de.dsm.backend.models.dto.ContactRequest;
 import de.dsm.backend.models.dto.ContactResponse;
 import de.dsm.backend.models.entity.Contact;
+import de.dsm.backend.models.mails.ContactMailData;
 import de.dsm.backend.repositories.ContactRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -20,10 +23,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +40,13 @@ class ContactServiceTest {
     private ContactRepository contactRepository;
 
     @Mock
-    private EmailService emailService;
+    private ContactMailOutboxService contactMailOutboxService;
+
+    @Mock
+    private UnreadContactCounter unreadContactCounter;
+
+    @Mock
+    private NotificationBroadcaster notificationBroadcaster;
 
     @InjectMocks
     private ContactService contactService;
@@ -63,12 +76,14 @@ class ContactServiceTest {
         ReflectionTestUtils.setField(savedContact, "id", contactId);
 
         when(contactRepository.save(any(Contact.class))).thenReturn(savedContact);
-        doNothing().when(emailService).sendContactMessage(any());
 
         contactService.createContact(contactRequest);
 
         verify(contactRepository, times(1)).save(any(Contact.class));
-        verify(emailService, times(1)).sendContactMessage(any());
+        verify(unreadContactCounter, times(1)).increment();
+        verify(notificationBroadcaster, times(1)).publish(eq(NotificationBroadcaster.CONTACT_CREATED), any(Supplier.class));
+        verify(contactMailOutboxService, times(1)).enqueue(
+                new ContactMailData("John Doe", "john@example.com", "Test message"));
     }
 
     @Test
@@ -94,79 +109,57 @@ class ContactServiceTest {
 
     @Test
     void readContactMessage() {
-        when(contactRepository.findById(contactId)).thenReturn(Optional.of(contact));
-        when(contactRepository.save(any(Contact.class))).thenReturn(contact);
-        when(contactRepository.countByReadFalse()).thenReturn(5L);
+        when(contactRepository.markRead(eq(contactId), any(LocalDateTime.class))).thenReturn(1);
+        when(unreadContactCounter.get()).thenReturn(5L);
 
         long unreadCount = contactService.readContactMessage(contactId);
 
-        assertTrue(contact.isRead());
-        assertNotNull(contact.getReadAt());
         assertEquals(5L, unreadCount);
-        verify(contactRepository, times(1)).findById(contactId);
-        verify(contactRepository, times(1)).save(contact);
-        verify(contactRepository, times(1)).countByReadFalse();
+        verify(contactRepository, times(1)).markRead(eq(contactId), any(LocalDateTime.class));
+        verify(unreadContactCounter, times(1)).decrement();
+        verify(contactRepository, never()).countByReadFalse();
     }
 
     @Test
-
     void readContactMessageAlreadyRead() {
-        contact.markAsRead();
-        LocalDateTime originalReadAt = contact.getReadAt();
-        when(contactRepository.findById(contactId)).thenReturn(Optional.of(contact));
-        when(contactRepository.countByReadFalse()).thenReturn(5L);
+        when(contactRepository.markRead(eq(contactId), any(LocalDateTime.class))).thenReturn(0);
+        when(unreadContactCounter.get()).thenReturn(5L);
 
         long unreadCount = contactService.readContactMessage(contactId);
 
-        assertTrue(contact.isRead());
-        assertEquals(originalReadAt, contact.getReadAt());
         assertEquals(5L, unreadCount);
-        verify(contactRepository, times(1)).findById(contactId);
+        verify(unreadContactCounter, never()).decrement();
         verify(contactRepository, never()).save(any(Contact.class));
-        verify(contactRepository, times(1)).countByReadFalse();
     }
 
     @Test
-    void whenContactNotFound() {
-        when(contactRepository.findById(contactId)).thenReturn(Optional.empty());
-        when(contactRepository.countByReadFalse()).thenReturn(10L);
+    void deleteUnreadContact() {
+        when(contactRepository.deleteUnreadById(contactId)).thenReturn(1);
 
-        long unreadCount = contactService.readContactMessage(contactId);
+        contactService.deleteContact(contactId);
 
-        assertEquals(10L, unreadCount);
-        verify(contactRepository, times(1)).findById(contactId);
-        verify(contactRepository, never()).save(any(Contact.class));
-        verify(contactRepository, times(1)).countByReadFalse();
+        verify(unreadContactCounter, times(1)).decrement();
+        verify(contactRepository, never()).deleteById(contactId);
     }
 
     @Test
-    void deleteContact() {
-        doNothing().when(contactRepository).deleteById(contactId);
+    void deleteReadContact() {
+        when(contactRepository.deleteUnreadById(contactId)).thenReturn(0);
 
         contactService.deleteContact(contactId);
 
         verify(contactRepository, times(1)).deleteById(contactId);
+        verify(unreadContactCounter, never()).decrement();
     }
 
     @Test
     void getUnreadCount() {
-        long expectedCount = 7L;
-        when(contactRepository.countByReadFalse()).thenReturn(expectedCount);
+        when(unreadContactCounter.get()).thenReturn(7L);
 
         long result = contactService.getUnreadCount();
 
-        assertEquals(expectedCount, result);
-        verify(contactRepository, times(1)).countByReadFalse();
-    }
-
-    @Test
-    void whenNoUnreadContacts() {
-        when(contactRepository.countByReadFalse()).thenReturn(0L);
-
-        long result = contactService.getUnreadCount();
-
-        assertEquals(0L, result);
-        verify(contactRepository, times(1)).countByReadFalse();
+        assertEquals(7L, result);
+        verify(contactRepository, never()).countByReadFalse();
     }
 
     @Test
@@ -183,4 +176,43 @@ class ContactServiceTest {
         assertTrue(result.getContent().isEmpty());
         verify(contactRepository, times(1)).findAll(pageable);
     }
+
+    @Test
+    void getInboxFirstPageReturnsCursorOfLastItem() {
+        Contact newer = contactAt(LocalDateTime.of(2025, 3, 2, 10, 0));
+        Contact older = contactAt(LocalDateTime.of(2025, 3, 1, 10, 0));
+        Contact oldest = contactAt(LocalDateTime.of(2025, 2, 1, 10, 0));
+        when(contactRepository.findInbox(Limit.of(3))).thenReturn(List.of(newer, older, oldest));
+
+        ContactCursorPageResponse result = contactService.getInbox(null, 2, false);
+
+        assertEquals(List.of(newer.getId(), older.getId()), result.items().stream().map(ContactResponse::id).toList());
+        assertEquals(new ContactCursor(older.getCreatedAt(), older.getId()), ContactCursor.decode(result.next()));
+    }
+
+    @Test
+    void getInboxUnreadAfterCursor() {
+        ContactCursor cursor = new ContactCursor(LocalDateTime.of(2025, 3, 1, 10, 0), UUID.randomUUID());
+        when(contactRepository.findUnreadInboxAfter(cursor.createdAt(), cursor.id(), Limit.of(21)))
+                .thenReturn(List.of(contact));
+
+        ContactCursorPageResponse result = contactService.getInbox(cursor.encode(), 20, true);
+
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
+        verify(contactRepository, never()).findInboxAfter(any(), any(), any());
+    }
+
+    @Test
+    void getInboxRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.getInbox("bm9wZQ", 20, false));
+        verifyNoInteractions(contactRepository);
+    }
+
+    private Contact contactAt(LocalDateTime createdAt) {
+        Contact message = new Contact("Jane Doe", "jane@example.com", "Hello");
+        ReflectionTestUtils.setField(message, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(message, "createdAt", createdAt);
+        return message;
+    }
 }
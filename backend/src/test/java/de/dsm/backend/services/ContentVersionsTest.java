@@ -0,0 +1,72 @@
+package de.dsm.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentVersionsTest {
+
+    private final ContentVersions contentVersions = new ContentVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpChangesOnlyTheGivenResource() {
+        var events = contentVersions.current(ContentVersions.EVENTS);
+        var galleries = contentVersions.current(ContentVersions.GALLERIES);
+
+        contentVersions.bump(ContentVersions.EVENTS);
+
+        assertNotEquals(events.etag(), contentVersions.current(ContentVersions.EVENTS).etag());
+        assertEquals(galleries.etag(), contentVersions.current(ContentVersions.GALLERIES).etag());
+        assertTrue(contentVersions.current(ContentVersions.EVENTS).etag().startsWith("W/\""));
+    }
+
+    @Test
+    void bumpWaitsForCommit() {
+        String gallery = ContentVersions.gallery(UUID.randomUUID());
+        var before = contentVersions.current(gallery);
+
+        TransactionSynchronizationManager.initSynchronization();
+        contentVersions.bump(gallery);
+
+        assertEquals(before, contentVersions.current(gallery));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(before.counter() + 1, contentVersions.current(gallery).counter());
+    }
+
+    @Test
+    void everyBumpAdvancesLastModifiedBySecondPrecision() {
+        var initial = contentVersions.current(ContentVersions.EVENTS).lastModified();
+
+        contentVersions.bump(ContentVersions.EVENTS);
+        var first = contentVersions.current(ContentVersions.EVENTS).lastModified();
+        contentVersions.bump(ContentVersions.EVENTS);
+        var second = contentVersions.current(ContentVersions.EVENTS).lastModified();
+
+        assertTrue(first.getEpochSecond() > initial.getEpochSecond());
+        assertTrue(second.getEpochSecond() > first.getEpochSecond());
+        assertEquals(0, second.getNano());
+    }
+
+    @Test
+    void etagsDifferAcrossRestarts() throws InterruptedException {
+        Thread.sleep(2);
+        var restarted = new ContentVersions();
+
+        assertNotEquals(contentVersions.current(ContentVersions.REENACTMENT).etag(),
+                restarted.current(ContentVersions.REENACTMENT).etag());
+    }
+}
@@ -1,9 +1,11 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.EventCursorPageResponse;
 import de.dsm.backend.models.dto.EventRequest;
 import de.dsm.backend.models.dto.EventResponse;
 import de.dsm.backend.models.dto.PhotoResponse;
 import de.dsm.backend.models.entity.Event;
+import de.dsm.backend.models.projections.EventSummary;
 import de.dsm.backend.repositories.EventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,11 +24,13 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +48,9 @@ class EventServiceTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private ContentVersions contentVersions;
+
     @InjectMocks
     private EventService eventService;
 
@@ -58,6 +66,7 @@ class EventServiceTest {
         ReflectionTestUtils.setField(event, "title", "Test Event");
         ReflectionTestUtils.setField(event, "text", "Test Description");
         ReflectionTestUtils.setField(event, "createdAt", LocalDateTime.now());
+        ReflectionTestUtils.setField(eventService, "timeZone", ZoneId.of("Europe/Berlin"));
 
         eventRequest = new EventRequest(eventId, "Test Event", "Test Description", null, null, null);
     }
@@ -149,17 +158,22 @@ class EventServiceTest {
     @Test
     void getEvents() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Event> eventPage = new PageImpl<>(List.of(event), pageable, 1);
+        EventSummary summary = new EventSummary(eventId, "Test Event", "Test excerpt", "image-key",
+                null, LocalDate.now(), LocalDateTime.now(), null);
+        Page<EventSummary> eventPage = new PageImpl<>(List.of(summary), pageable, 1);
 
-        when(eventRepository.findAllOrderByDateDesc(pageable)).thenReturn(eventPage);
-        when(s3UrlService.getPublicUrl(null)).thenReturn(null);
+        when(eventRepository.findSummariesOrderByDateDesc(pageable)).thenReturn(eventPage);
+        when(s3UrlService.getPublicUrl("image-key")).thenReturn("https://example.com/image.jpg");
 
         Page<EventResponse> result = eventService.getEvents(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getContent().size());
-        verify(eventRepository, times(1)).findAllOrderByDateDesc(pageable);
+        assertEquals("Test excerpt", result.getContent().get(0).text());
+        assertEquals("https://example.com/image.jpg", result.getContent().get(0).image());
+        verify(eventRepository, times(1)).findSummariesOrderByDateDesc(pageable);
+        verify(eventRepository, never()).findAll(any(Pageable.class));
     }
 
     @Test
@@ -213,6 +227,7 @@ class EventServiceTest {
         eventService.deleteEvent(eventId);
 
         verify(eventRepository, times(1)).deleteById(eventId);
+        verify(contentVersions, times(1)).bump(ContentVersions.EVENTS);
     }
 
     @Test
@@ -242,4 +257,103 @@ class EventServiceTest {
         assertNotNull(result);
         assertEquals(LocalDate.of(2024, 1, 15), savedEvent.getDate());
     }
+
+    @Test
+    void getEventsAfterFirstPageReturnsCursorOfLastItem() {
+        EventSummary first = summary(LocalDate.of(2025, 5, 1));
+        EventSummary second = summary(LocalDate.of(2025, 4, 1));
+        EventSummary third = summary(LocalDate.of(2025, 3, 1));
+        when(eventRepository.findFirstKeysetPage(Limit.of(3))).thenReturn(List.of(first, second, third));
+
+        EventCursorPageResponse result = eventService.getEventsAfter(null, 2);
+
+        assertEquals(List.of(first.id(), second.id()), result.items().stream().map(EventResponse::id).toList());
+        assertEquals(new EventCursor(second.date(), second.id()), EventCursor.decode(result.next()));
+    }
+
+    @Test
+    void getEventsAfterDatedCursorContinuesIntoUndatedEvents() {
+        EventCursor cursor = new EventCursor(LocalDate.of(2025, 4, 1), UUID.randomUUID());
+        EventSummary dated = summary(LocalDate.of(2025, 3, 1));
+        EventSummary undated = summary(null);
+        when(eventRepository.findDatedAfter(cursor.date(), cursor.id(), Limit.of(3))).thenReturn(List.of(dated));
+        when(eventRepository.findUndated(Limit.of(2))).thenReturn(List.of(undated));
+
+        EventCursorPageResponse result = eventService.getEventsAfter(cursor.encode(), 2);
+
+        assertEquals(List.of(dated.id(), undated.id()), result.items().stream().map(EventResponse::id).toList());
+        assertNull(result.next());
+    }
+
+    @Test
+    void getEventsAfterUndatedCursorSeeksById() {
+        EventCursor cursor = new EventCursor(null, UUID.randomUUID());
+        EventSummary undated = summary(null);
+        when(eventRepository.findUndatedAfter(cursor.id(), Limit.of(3))).thenReturn(List.of(undated));
+
+        EventCursorPageResponse result = eventService.getEventsAfter(cursor.encode(), 2);
+
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
+        verify(eventRepository, never()).findDatedAfter(any(), any(), any());
+    }
+
+    @Test
+    void getEventsAfterRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventsAfter("not a cursor", 20));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventsAfter("bm9wZQ", 20));
+    }
+
+    @Test
+    void getEventsInRangeUsesGivenBounds() {
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        EventSummary summary = summary(LocalDate.of(2025, 6, 1));
+        when(eventRepository.findSummariesBetween(from, to, pageable))
+                .thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
+
+        Page<EventResponse> result = eventService.getEventsInRange(from, to, false, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(summary.id(), result.getContent().get(0).id());
+    }
+
+    @Test
+    void getEventsInRangeUpcomingStartsToday() {
+        Pageable pageable = PageRequest.of(0, 5);
+        LocalDate today = eventService.today();
+        when(eventRepository.findSummariesBetween(eq(today), any(), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        eventService.getEventsInRange(today.minusYears(1), null, true, pageable);
+
+        verify(eventRepository).findSummariesBetween(today, LocalDate.of(9999, 12, 31), pageable);
+    }
+
+    @Test
+    void getEventsInRangeUpcomingBeforeTodayIsEmpty() {
+        Pageable pageable = PageRequest.of(0, 5);
+
+        Page<EventResponse> result = eventService.getEventsInRange(null, eventService.today().minusDays(1), true, pageable);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void getEventsInRangeRejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventsInRange(
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), false, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void rollOverDayBumpsEventsVersion() {
+        eventService.rollOverDay();
+
+        verify(contentVersions).bump(ContentVersions.EVENTS);
+    }
+
+    private EventSummary summary(LocalDate date) {
+        return new EventSummary(UUID.randomUUID(), "Event", "Text", null, null, date, LocalDateTime.now(), null);
+    }
 }
@@ -3,6 +3,7 @@ package de.dsm.backend.services;
 import de.dsm.backend.models.dto.GalleryRequest;
 import de.dsm.backend.models.dto.GalleryResponse;
 import de.dsm.backend.models.entity.Gallery;
+import de.dsm.backend.models.projections.GallerySummary;
 import de.dsm.backend.repositories.GalleryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,9 @@ class GalleryServiceTest {
     @Mock
     private PhotoService photoService;
 
+    @Mock
+    private ContentVersions contentVersions;
+
     @InjectMocks
     private GalleryService galleryService;
 
@@ -128,36 +132,42 @@ class GalleryServiceTest {
 
     @Test
     void getAllPublishedGalleries() {
-        Gallery publishedGallery = new Gallery("Published Gallery", null, "Description", true);
-        ReflectionTestUtils.setField(publishedGallery, "id", UUID.randomUUID());
-        ReflectionTestUtils.setField(publishedGallery, "createdAt", LocalDateTime.now());
+        UUID publishedId = UUID.randomUUID();
+        GallerySummary summary = summary(publishedId, true, 3L, "thumbnails/a.jpg");
 
-        when(galleryRepository.findByIs_publishedTrueOrderByCreatedAtDesc())
-            .thenReturn(List.of(publishedGallery));
+        when(galleryRepository.findSummaries(true)).thenReturn(List.of(summary));
         when(s3UrlService.getPublicUrl(null)).thenReturn(null);
+        when(s3UrlService.getPublicUrl("thumbnails/a.jpg")).thenReturn("https://example.com/thumbnails/a.jpg");
 
         List<GalleryResponse> result = galleryService.getAllPublishedGalleries();
 
         assertNotNull(result);
         assertEquals(1, result.size());
+        assertEquals(publishedId, result.get(0).id());
         assertTrue(result.get(0).published());
-        verify(galleryRepository, times(1)).findByIs_publishedTrueOrderByCreatedAtDesc();
+        assertEquals(3L, result.get(0).photoCount());
+        assertEquals("https://example.com/thumbnails/a.jpg", result.get(0).coverUrl());
+        verify(galleryRepository, times(1)).findSummaries(true);
+        verifyNoMoreInteractions(galleryRepository);
+        verifyNoInteractions(photoService);
     }
 
     @Test
     void getAllGalleries() {
-        Gallery gallery2 = new Gallery("Gallery 2", null, "Description 2", true);
-        ReflectionTestUtils.setField(gallery2, "id", UUID.randomUUID());
-        ReflectionTestUtils.setField(gallery2, "createdAt", LocalDateTime.now());
+        GallerySummary unpublished = summary(galleryId, false, 0L, null);
+        GallerySummary published = summary(UUID.randomUUID(), true, 2L, "thumbnails/b.jpg");
 
-        when(galleryRepository.findAll()).thenReturn(List.of(gallery, gallery2));
-        when(s3UrlService.getPublicUrl(null)).thenReturn(null);
+        when(galleryRepository.findSummaries(false)).thenReturn(List.of(unpublished, published));
+        when(s3UrlService.getPublicUrl(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         List<GalleryResponse> result = galleryService.getAllGalleries();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(galleryRepository, times(1)).findAll();
+        assertEquals(0L, result.get(0).photoCount());
+        assertNull(result.get(0).coverUrl());
+        assertEquals("thumbnails/b.jpg", result.get(1).coverUrl());
+        verify(galleryRepository, times(1)).findSummaries(false);
     }
 
     @Test
@@ -169,6 +179,7 @@ class GalleryServiceTest {
 
         verify(photoService, times(1)).deletePhotosByGalleryId(galleryId);
         verify(galleryRepository, times(1)).deleteById(galleryId);
+        verify(contentVersions, times(1)).bump(ContentVersions.GALLERIES, ContentVersions.gallery(galleryId));
     }
 
     @Test
@@ -182,4 +193,15 @@ class GalleryServiceTest {
         inOrder.verify(photoService).deletePhotosByGalleryId(galleryId);
         inOrder.verify(galleryRepository).deleteById(galleryId);
     }
+
+    private GallerySummary summary(UUID id, boolean published, long photoCount, String coverKey) {
+        GallerySummary summary = mock(GallerySummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getTitle()).thenReturn("Gallery");
+        lenient().when(summary.getPublished()).thenReturn(published);
+        lenient().when(summary.getCreatedAt()).thenReturn(LocalDateTime.now());
+        lenient().when(summary.getPhotoCount()).thenReturn(photoCount);
+        lenient().when(summary.getCoverKey()).thenReturn(coverKey);
+        return summary;
+    }
 }
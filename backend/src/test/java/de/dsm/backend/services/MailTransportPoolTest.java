@@ -0,0 +1,157 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.MailTransportStatsResponse;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailTransportPoolTest {
+
+    @Mock
+    private Transport transport;
+
+    private MailTransportPool mailTransportPool;
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("smtp.example.com");
+        mailSender.setPort(587);
+        mailSender.setUsername("user");
+        mailSender.setPassword("secret");
+        mailTransportPool = spy(new MailTransportPool(mailSender));
+        ReflectionTestUtils.setField(mailTransportPool, "idleTimeout", Duration.ofSeconds(30));
+        doReturn(transport).when(mailTransportPool).newTransport();
+    }
+
+    @Test
+    void reusesConnectionAcrossBatches() throws MessagingException {
+        mailTransportPool.send(List.of(message("a@example.com"), message("b@example.com")));
+        mailTransportPool.send(List.of(message("c@example.com")));
+
+        verify(mailTransportPool, times(1)).newTransport();
+        verify(transport, times(1)).connect("smtp.example.com", 587, "user", "secret");
+        verify(transport, times(3)).sendMessage(any(Message.class), any());
+        MailTransportStatsResponse stats = mailTransportPool.getStatistics();
+        assertEquals(3, stats.messagesSent());
+        assertEquals(2, stats.batches());
+        assertEquals(1, stats.connectionsOpened());
+        assertEquals(3.0, stats.messagesPerConnection());
+        assertTrue(stats.connected());
+    }
+
+    @Test
+    void reportsFailedMessagesAndSendsTheRest() throws MessagingException {
+        MimeMessage rejected = message("rejected@example.com");
+        MimeMessage accepted = message("accepted@example.com");
+        doThrow(new MessagingException("550 mailbox unavailable")).when(transport).sendMessage(eq(rejected), any());
+        when(transport.isConnected()).thenReturn(true);
+
+        MailSendException exception = assertThrows(MailSendException.class,
+                () -> mailTransportPool.send(List.of(rejected, accepted)));
+
+        assertEquals(1, exception.getFailedMessages().size());
+        assertTrue(exception.getFailedMessages().containsKey(rejected));
+        verify(transport, times(1)).sendMessage(eq(accepted), any());
+        assertEquals(1, mailTransportPool.getStatistics().messagesSent());
+        assertEquals(1, mailTransportPool.getStatistics().messagesFailed());
+    }
+
+    @Test
+    void reconnectsOnceWhenServerDroppedConnection() throws MessagingException {
+        MimeMessage mail = message("a@example.com");
+        doThrow(new MessagingException("421 closing connection")).doNothing().when(transport).sendMessage(eq(mail), any());
+        when(transport.isConnected()).thenReturn(false);
+
+        mailTransportPool.send(List.of(mail));
+
+        verify(mailTransportPool, times(2)).newTransport();
+        verify(transport, times(2)).sendMessage(eq(mail), any());
+        assertEquals(1, mailTransportPool.getStatistics().messagesSent());
+        assertEquals(2, mailTransportPool.getStatistics().connectionsOpened());
+    }
+
+    @Test
+    void failsWholeBatchWhenConnectFails() throws MessagingException {
+        MimeMessage first = message("a@example.com");
+        MimeMessage second = message("b@example.com");
+        doThrow(new MessagingException("Connection refused")).when(transport).connect(anyString(), anyInt(), anyString(), anyString());
+
+        MailSendException exception = assertThrows(MailSendException.class,
+                () -> mailTransportPool.send(List.of(first, second)));
+
+        assertEquals(2, exception.getFailedMessages().size());
+        verify(transport, never()).sendMessage(any(Message.class), any());
+        assertFalse(mailTransportPool.getStatistics().connected());
+    }
+
+    @Test
+    void closeIdleClosesConnectionAfterTimeout() throws MessagingException {
+        mailTransportPool.send(List.of(message("a@example.com")));
+
+        mailTransportPool.closeIdle();
+        verify(transport, never()).close();
+
+        ReflectionTestUtils.setField(mailTransportPool, "idleTimeout", Duration.ZERO);
+        mailTransportPool.closeIdle();
+
+        verify(transport, times(1)).close();
+        assertFalse(mailTransportPool.getStatistics().connected());
+    }
+
+    @Test
+    void statisticsDoNotWaitForBatchInProgress() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(transport).sendMessage(any(Message.class), any());
+        MimeMessage mail = message("a@example.com");
+
+        Thread sender = Thread.ofVirtual().start(() -> mailTransportPool.send(List.of(mail)));
+        try {
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            MailTransportStatsResponse stats = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                    () -> mailTransportPool.getStatistics());
+            assertTrue(stats.connected());
+        } finally {
+            release.countDown();
+            sender.join();
+        }
+        assertEquals(1, mailTransportPool.getStatistics().messagesSent());
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(to));
+        message.setSubject("Test");
+        message.setText("Body");
+        return message;
+    }
+}
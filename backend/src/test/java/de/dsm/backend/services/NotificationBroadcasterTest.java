@@ -0,0 +1,94 @@
+package de.dsm.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationBroadcasterTest {
+
+    private final NotificationBroadcaster broadcaster = new NotificationBroadcaster(Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishReachesEverySubscriber() {
+        var first = broadcaster.register(new RecordingEmitter());
+        var second = broadcaster.register(new RecordingEmitter());
+
+        broadcaster.publish(NotificationBroadcaster.CONTACT_CREATED, "hello");
+
+        assertEquals(1, ((RecordingEmitter) first).events.size());
+        assertEquals(1, ((RecordingEmitter) second).events.size());
+    }
+
+    @Test
+    void publishWaitsForCommit() {
+        var emitter = (RecordingEmitter) broadcaster.register(new RecordingEmitter());
+
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publish(NotificationBroadcaster.PHOTO_PROCESSED, "done");
+        assertTrue(emitter.events.isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, emitter.events.size());
+    }
+
+    @Test
+    void brokenSubscriberIsDropped() {
+        var healthy = (RecordingEmitter) broadcaster.register(new RecordingEmitter());
+        broadcaster.register(new BrokenEmitter());
+
+        broadcaster.publish(NotificationBroadcaster.CONTACT_CREATED, "hello");
+        broadcaster.heartbeat();
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(2, healthy.events.size());
+    }
+
+    @Test
+    void eachSubscriberIsSentToByItsOwnTask() {
+        List<Runnable> tasks = new ArrayList<>();
+        var queued = new NotificationBroadcaster(tasks::add);
+        var first = (RecordingEmitter) queued.register(new RecordingEmitter());
+        var second = (RecordingEmitter) queued.register(new RecordingEmitter());
+
+        queued.publish(NotificationBroadcaster.CONTACT_CREATED, "hello");
+
+        assertEquals(2, tasks.size());
+        tasks.get(0).run();
+        assertEquals(1, first.events.size() + second.events.size());
+
+        tasks.get(1).run();
+        assertEquals(1, first.events.size());
+        assertEquals(1, second.events.size());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder event) {
+            events.add(event);
+        }
+    }
+
+    private static class BrokenEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder event) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
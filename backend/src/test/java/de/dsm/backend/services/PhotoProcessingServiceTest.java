@@ -0,0 +1,162 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.PhotoProcessedNotification;
+import de.dsm.backend.models.entity.PhotoJob;
+import de.dsm.backend.models.entity.PhotoJobStatus;
+import de.dsm.backend.models.entity.PhotoStatus;
+import de.dsm.backend.repositories.PhotoJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.IIOException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoProcessingServiceTest {
+
+    @Mock
+    private PhotoJobRepository photoJobRepository;
+
+    @Mock
+    private PhotoService photoService;
+
+    @Mock
+    private NotificationBroadcaster notificationBroadcaster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PhotoProcessingService photoProcessingService;
+
+    private UUID photoId;
+    private UUID jobId;
+    private PhotoJob job;
+
+    @BeforeEach
+    void setUp() {
+        photoProcessingService = new PhotoProcessingService(
+                photoJobRepository, photoService, notificationBroadcaster, new SyncTaskExecutor(), transactionManager, 2);
+        ReflectionTestUtils.setField(photoProcessingService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(photoProcessingService, "retryBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(photoProcessingService, "staleAfter", Duration.ofMinutes(10));
+
+        photoId = UUID.randomUUID();
+        jobId = UUID.randomUUID();
+        job = new PhotoJob(photoId);
+        ReflectionTestUtils.setField(job, "id", jobId);
+    }
+
+    @Test
+    void processPendingJobs() throws IOException {
+        when(photoJobRepository.findClaimable(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+            .thenReturn(List.of(job));
+        when(photoJobRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(photoService.generateVariants(photoId)).thenReturn(true);
+
+        photoProcessingService.processPendingJobs();
+
+        assertEquals(1, job.getAttempts());
+        verify(photoService, times(1)).generateVariants(photoId);
+        verify(photoJobRepository, times(1)).deleteById(jobId);
+        verify(notificationBroadcaster, times(1)).publish(NotificationBroadcaster.PHOTO_PROCESSED,
+                new PhotoProcessedNotification(photoId, PhotoStatus.READY));
+    }
+
+    @Test
+    void jobForPhotoDeletedWhileProcessingPublishesNothing() throws IOException {
+        job.claim(LocalDateTime.now());
+        when(photoService.generateVariants(photoId)).thenReturn(false);
+
+        photoProcessingService.runJob(job);
+
+        verify(photoJobRepository, times(1)).deleteById(jobId);
+        verifyNoInteractions(notificationBroadcaster);
+    }
+
+    @Test
+    void processPendingJobsWithNothingDue() throws IOException {
+        when(photoJobRepository.findClaimable(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+            .thenReturn(List.of());
+        when(photoJobRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        photoProcessingService.processPendingJobs();
+
+        verify(photoService, never()).generateVariants(any());
+    }
+
+    @Test
+    void failedJobIsRescheduled() throws IOException {
+        job.claim(LocalDateTime.now());
+        doThrow(new IOException("S3 unavailable")).when(photoService).generateVariants(photoId);
+
+        photoProcessingService.runJob(job);
+
+        assertEquals(PhotoJobStatus.PENDING, job.getStatus());
+        assertTrue(job.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertTrue(job.getLastError().contains("S3 unavailable"));
+        verify(photoJobRepository, times(1)).save(job);
+        verify(photoJobRepository, never()).deleteById(any());
+        verify(photoService, never()).markFailed(any());
+        verifyNoInteractions(notificationBroadcaster);
+    }
+
+    @Test
+    void unreadableImageFailsOnFirstAttempt() throws IOException {
+        job.claim(LocalDateTime.now());
+        doThrow(new IIOException("Unsupported JPEG process")).when(photoService).generateVariants(photoId);
+        when(photoService.markFailed(photoId)).thenReturn(true);
+
+        photoProcessingService.runJob(job);
+
+        assertEquals(PhotoJobStatus.FAILED, job.getStatus());
+        verify(photoService, times(1)).markFailed(photoId);
+        verify(photoJobRepository, times(1)).save(job);
+    }
+
+    @Test
+    void jobIsRescheduledWhenMarkingPhotoFailedThrows() throws IOException {
+        job.claim(LocalDateTime.now());
+        doThrow(new IllegalArgumentException("Wrong image format")).when(photoService).generateVariants(photoId);
+        when(photoService.markFailed(photoId)).thenThrow(new IllegalStateException("database unavailable"));
+
+        photoProcessingService.runJob(job);
+
+        assertEquals(PhotoJobStatus.PENDING, job.getStatus());
+        assertTrue(job.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(photoJobRepository, times(1)).save(job);
+        verifyNoInteractions(notificationBroadcaster);
+    }
+
+    @Test
+    void jobFailsAfterMaxAttempts() throws IOException {
+        job.claim(LocalDateTime.now());
+        job.claim(LocalDateTime.now());
+        job.claim(LocalDateTime.now());
+        doThrow(new IOException("S3 unavailable")).when(photoService).generateVariants(photoId);
+        when(photoService.markFailed(photoId)).thenReturn(true);
+
+        photoProcessingService.runJob(job);
+
+        assertEquals(PhotoJobStatus.FAILED, job.getStatus());
+        verify(photoService, times(1)).markFailed(photoId);
+        verify(notificationBroadcaster, times(1)).publish(NotificationBroadcaster.PHOTO_PROCESSED,
+                new PhotoProcessedNotification(photoId, PhotoStatus.FAILED));
+        verify(photoJobRepository, times(1)).save(job);
+    }
+}
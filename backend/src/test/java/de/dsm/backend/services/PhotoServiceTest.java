@@ -1,31 +1,70 @@
 package de.dsm.backend.services;
 
+import de.dsm.backend.models.dto.PhotoFinalizeRequest;
 import de.dsm.backend.models.dto.PhotoResponse;
+import de.dsm.backend.models.dto.PhotoUploadResult;
+import de.dsm.backend.models.dto.PhotoUploadUrlRequest;
+import de.dsm.backend.models.dto.PhotoUploadUrlResponse;
 import de.dsm.backend.models.entity.Photo;
+import de.dsm.backend.models.entity.PhotoJob;
+import de.dsm.backend.models.entity.PhotoStatus;
+import de.dsm.backend.repositories.PhotoContentRepository;
+import de.dsm.backend.repositories.PhotoJobRepository;
 import de.dsm.backend.repositories.PhotoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,11 +80,29 @@ class PhotoServiceTest {
     @Mock
     private S3Client s3Client;
 
+    @Mock
+    private S3Presigner s3Presigner;
+
+    @Mock
+    private ObjectProvider<S3AsyncClient> s3AsyncClientProvider;
+
     @Mock
     private PhotoRepository photoRepository;
 
     @Mock
-    private MultipartFile multipartFile;
+    private PhotoJobRepository photoJobRepository;
+
+    @Mock
+    private PhotoContentRepository photoContentRepository;
+
+    @Mock
+    private StorageCleanupService storageCleanupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ContentVersions contentVersions;
 
     @InjectMocks
     private PhotoService photoService;
@@ -79,6 +136,9 @@ class PhotoServiceTest {
 
         ReflectionTestUtils.setField(photoService, "bucketName", bucketName);
         ReflectionTestUtils.setField(photoService, "thumbSize", 300);
+        ReflectionTestUtils.setField(photoService, "variantWidths", List.of(320, 640, 1280));
+        ReflectionTestUtils.setField(photoService, "batchParallelism", 2);
+        ReflectionTestUtils.setField(photoService, "uploadUrlTtl", Duration.ofMinutes(15));
     }
 
     @Test
@@ -86,46 +146,516 @@ class PhotoServiceTest {
         BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         ImageIO.write(testImage, "jpg", baos);
-        byte[] imageBytes = baos.toByteArray();
-
-        when(multipartFile.getBytes()).thenReturn(imageBytes);
-        when(multipartFile.getOriginalFilename()).thenReturn("test.jpg");
-        when(multipartFile.getContentType()).thenReturn("image/jpeg");
-        when(multipartFile.getSize()).thenReturn((long) imageBytes.length);
+        MultipartFile upload = new MockMultipartFile("file", "test.jpg", "image/jpeg", baos.toByteArray());
 
         doReturn(PutObjectResponse.builder().build())
             .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
 
-        when(photoRepository.save(any(Photo.class))).thenAnswer(invocation -> {
-            Photo photo = invocation.getArgument(0);
-            ReflectionTestUtils.setField(photo, "id", photoId);
-            return photo;
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Photo> photos = invocation.getArgument(0);
+            photos.forEach(photo -> ReflectionTestUtils.setField(photo, "id", photoId));
+            return photos;
         });
         lenient().when(s3UrlService.getPublicUrl(anyString())).thenReturn("https://example.com/image.jpg");
 
-        PhotoResponse result = photoService.uploadFile(multipartFile, "Test Caption", "Test Alt", galleryId);
+        PhotoResponse result = photoService.uploadFile(upload, "Test Caption", "Test Alt", galleryId);
 
         assertNotNull(result);
         assertEquals(photoId, result.getId());
         assertEquals("test.jpg", result.getOriginalName());
+        assertEquals(800, result.getWidth());
+        assertEquals(600, result.getHeight());
+        assertEquals(baos.size(), result.getSizeBytes());
         assertEquals(galleryId, result.getGalleryId());
-        verify(s3Client, atLeast(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
-        verify(photoRepository, times(1)).save(any(Photo.class));
+        assertEquals(PhotoStatus.PROCESSING, result.getStatus());
+        ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), body.capture());
+        assertEquals(baos.size(), body.getValue().optionalContentLength().orElseThrow());
+        try (var uploaded = body.getValue().contentStreamProvider().newStream()) {
+            assertArrayEquals(baos.toByteArray(), uploaded.readAllBytes());
+        }
+        verify(photoRepository, times(1)).saveAll(argThat(photos -> ((List<Photo>) photos).size() == 1));
+        verify(photoJobRepository, times(1)).saveAll(argThat(jobs -> ((List<PhotoJob>) jobs).get(0).getPhotoId().equals(photoId)));
     }
 
     @Test
-    void uploadFileWithInvalidFormat() throws IOException {
-        byte[] invalidBytes = "not an image".getBytes();
+    void uploadFileReservesContentBeforeWritingOriginal() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "test.jpg", "image/jpeg", baos.toByteArray());
 
-        when(multipartFile.getBytes()).thenReturn(invalidBytes);
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        assertThrows(IllegalArgumentException.class, () -> {
-            photoService.uploadFile(multipartFile, null, null, null);
+        photoService.uploadFile(upload, null, null, galleryId);
+
+        InOrder inOrder = inOrder(photoContentRepository, s3Client, photoRepository);
+        inOrder.verify(photoContentRepository).lock(anyString());
+        inOrder.verify(photoContentRepository).acquire(anyString());
+        inOrder.verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        inOrder.verify(photoRepository).saveAll(anyList());
+        verify(photoContentRepository, times(1)).acquire(anyString());
+    }
+
+    @Test
+    void uploadFileReleasesReservationWhenOriginalFails() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "test.jpg", "image/jpeg", baos.toByteArray());
+
+        doThrow(S3Exception.builder().message("unavailable").statusCode(503).build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoContentRepository.findRefCount(anyString())).thenReturn(Optional.of(0));
+
+        assertThrows(RuntimeException.class, () -> photoService.uploadFile(upload, null, null, galleryId));
+
+        verify(photoContentRepository, times(1)).release(anyString());
+        verify(photoContentRepository, times(1)).deleteById(anyString());
+        verify(storageCleanupService, times(1)).scheduleDeletion(anyString(), argThat(keys -> keys.size() == 1));
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void uploadFileReusesExistingContent() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "copy.jpg", "image/jpeg", baos.toByteArray());
+
+        photo.setContentHash("abc");
+        photo.setStatus(PhotoStatus.READY);
+        when(photoRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(photo));
+        when(photoContentRepository.isLive(anyString())).thenReturn(true);
+        when(photoRepository.findFirstByContentHashAndStatus(anyString(), eq(PhotoStatus.READY))).thenReturn(Optional.of(photo));
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PhotoResponse result = photoService.uploadFile(upload, null, null, UUID.randomUUID());
+
+        assertEquals("original/key.jpg", result.getObjectKey());
+        assertEquals("copy.jpg", result.getOriginalName());
+        assertEquals(photo.getVersions(), result.getVersionKeys());
+        assertEquals(PhotoStatus.READY, result.getStatus());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        InOrder inOrder = inOrder(photoContentRepository, photoRepository);
+        inOrder.verify(photoContentRepository).lock(anyString());
+        inOrder.verify(photoContentRepository).isLive(anyString());
+        inOrder.verify(photoContentRepository).acquire(anyString());
+        inOrder.verify(photoRepository).saveAll(anyList());
+        verify(photoContentRepository, times(1)).acquire(anyString());
+        verify(photoJobRepository, times(1)).saveAll(List.of());
+    }
+
+    @Test
+    void uploadFileWritesOriginalAgainWhenReusedContentIsNoLongerLive() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "copy.jpg", "image/jpeg", baos.toByteArray());
+
+        photo.setContentHash("abc");
+        photo.setStatus(PhotoStatus.READY);
+        when(photoRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(photo));
+        when(photoContentRepository.isLive(anyString())).thenReturn(false);
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PhotoResponse result = photoService.uploadFile(upload, null, null, galleryId);
+
+        assertTrue(result.getObjectKey().startsWith("original/"));
+        assertNotEquals("original/key.jpg", result.getObjectKey());
+        assertEquals(PhotoStatus.PROCESSING, result.getStatus());
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoContentRepository, times(1)).acquire(anyString());
+        verify(photoJobRepository, times(1)).saveAll(argThat(jobs -> ((List<PhotoJob>) jobs).size() == 1));
+    }
+
+    @Test
+    void uploadFileReleasesReusedContentWhenPersistFails() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "copy.jpg", "image/jpeg", baos.toByteArray());
+
+        photo.setContentHash("abc");
+        photo.setStatus(PhotoStatus.READY);
+        when(photoRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(photo));
+        when(photoContentRepository.isLive(anyString())).thenReturn(true);
+        when(photoRepository.findFirstByContentHashAndStatus(anyString(), eq(PhotoStatus.READY))).thenReturn(Optional.of(photo));
+        when(photoRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        when(photoContentRepository.findRefCount(anyString())).thenReturn(Optional.of(1));
+
+        assertThrows(IllegalStateException.class, () -> photoService.uploadFile(upload, null, null, galleryId));
+
+        verify(photoContentRepository, times(1)).acquire(anyString());
+        verify(photoContentRepository, times(1)).release(anyString());
+        verify(storageCleanupService, never()).scheduleDeletion(anyString(), anyCollection());
+    }
+
+    @Test
+    void uploadFileReusingProcessingContentEnqueuesJob() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+        MultipartFile upload = new MockMultipartFile("file", "copy.jpg", "image/jpeg", baos.toByteArray());
+
+        photo.setContentHash("abc");
+        photo.setStatus(PhotoStatus.PROCESSING);
+        when(photoRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(photo));
+        when(photoContentRepository.isLive(anyString())).thenReturn(true);
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Photo> photos = invocation.getArgument(0);
+            photos.forEach(saved -> ReflectionTestUtils.setField(saved, "id", photoId));
+            return photos;
+        });
+
+        PhotoResponse result = photoService.uploadFile(upload, null, null, UUID.randomUUID());
+
+        assertEquals("original/key.jpg", result.getObjectKey());
+        assertEquals(PhotoStatus.PROCESSING, result.getStatus());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoJobRepository, times(1)).saveAll(argThat(jobs -> ((List<PhotoJob>) jobs).size() == 1
+                && ((List<PhotoJob>) jobs).get(0).getPhotoId().equals(photoId)));
+    }
+
+    @Test
+    void uploadFiles() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        List<MultipartFile> uploads = List.of(
+            new MockMultipartFile("files", "first.jpg", "image/jpeg", baos.toByteArray()),
+            new MockMultipartFile("files", "broken.txt", "text/plain", "not an image".getBytes()),
+            new MockMultipartFile("files", "second.jpg", "image/jpeg", baos.toByteArray()));
+
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Photo> photos = invocation.getArgument(0);
+            photos.forEach(photo -> ReflectionTestUtils.setField(photo, "id", UUID.randomUUID()));
+            return photos;
+        });
+
+        List<PhotoUploadResult> results = photoService.uploadFiles(uploads, galleryId);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).success());
+        assertEquals("first.jpg", results.get(0).photo().getOriginalName());
+        assertFalse(results.get(1).success());
+        assertEquals("broken.txt", results.get(1).fileName());
+        assertEquals("Wrong image format", results.get(1).error());
+        assertTrue(results.get(2).success());
+        assertEquals("second.jpg", results.get(2).photo().getOriginalName());
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoRepository, times(1)).saveAll(argThat(photos -> ((List<Photo>) photos).size() == 2));
+        verify(photoJobRepository, times(1)).saveAll(argThat(jobs -> ((List<PhotoJob>) jobs).size() == 2));
+    }
+
+    @Test
+    void createUploadUrl() {
+        try (S3Presigner presigner = S3Presigner.builder()
+                .endpointOverride(URI.create("http://localhost:9000"))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("key", "secret")))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build()) {
+            ReflectionTestUtils.setField(photoService, "s3Presigner", presigner);
+
+            Instant before = Instant.now();
+            PhotoUploadUrlResponse result = photoService.createUploadUrl(new PhotoUploadUrlRequest("Holiday.JPG", "image/jpeg"));
+
+            assertTrue(result.objectKey().startsWith("uploads/"));
+            assertTrue(result.objectKey().endsWith(".jpg"));
+            assertTrue(result.uploadUrl().startsWith("http://localhost:9000/" + bucketName + "/" + result.objectKey()));
+            assertTrue(result.uploadUrl().contains("X-Amz-Signature="));
+            assertEquals("image/jpeg", result.headers().get("content-type"));
+            assertFalse(result.headers().containsKey("host"));
+            assertFalse(result.expiresAt().isBefore(before.plus(Duration.ofMinutes(15)).minusSeconds(1)));
+            assertTrue(result.expiresAt().isBefore(before.plus(Duration.ofMinutes(16))));
+        }
+    }
+
+    @Test
+    void finalizeUpload() {
+        String objectKey = "uploads/direct.jpg";
+        when(photoRepository.existsByObjectKey(objectKey)).thenReturn(false);
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+            .thenReturn(HeadObjectResponse.builder().contentType("image/jpeg").contentLength(2048L).build());
+        when(photoRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Photo> photos = invocation.getArgument(0);
+            photos.forEach(photo -> ReflectionTestUtils.setField(photo, "id", photoId));
+            return photos;
         });
 
+        PhotoResponse result = photoService.finalizeUpload(
+            new PhotoFinalizeRequest(objectKey, "direct.jpg", "Caption", "", galleryId));
+
+        assertEquals(photoId, result.getId());
+        assertEquals(objectKey, result.getObjectKey());
+        assertEquals(2048L, result.getSizeBytes());
+        assertEquals("Caption", result.getCaption());
+        assertNull(result.getAltText());
+        assertEquals(PhotoStatus.PROCESSING, result.getStatus());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoContentRepository, never()).acquire(anyString());
+        verify(photoJobRepository, times(1)).saveAll(argThat(jobs -> ((List<PhotoJob>) jobs).get(0).getPhotoId().equals(photoId)));
+    }
+
+    @Test
+    void finalizeUploadAlreadyFinalized() {
+        String objectKey = "uploads/direct.jpg";
+        when(photoRepository.existsByObjectKey(objectKey)).thenReturn(true);
+
+        var error = assertThrows(ResponseStatusException.class, () ->
+            photoService.finalizeUpload(new PhotoFinalizeRequest(objectKey, "direct.jpg", null, null, galleryId)));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void finalizeUploadLosingConcurrentFinalizeIsConflict() {
+        String objectKey = "uploads/direct.jpg";
+        when(photoRepository.existsByObjectKey(objectKey)).thenReturn(false, true);
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+            .thenReturn(HeadObjectResponse.builder().contentType("image/jpeg").contentLength(2048L).build());
+        when(photoRepository.saveAll(anyList()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        var error = assertThrows(ResponseStatusException.class, () ->
+            photoService.finalizeUpload(new PhotoFinalizeRequest(objectKey, "direct.jpg", null, null, galleryId)));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        verify(storageCleanupService, never()).scheduleDeletion(any(), anyCollection());
+    }
+
+    @Test
+    void finalizeUploadRejectsForeignKey() {
+        assertThrows(IllegalArgumentException.class, () ->
+            photoService.finalizeUpload(new PhotoFinalizeRequest("original/key.jpg", "test.jpg", null, null, galleryId)));
+
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void finalizeUploadWithMissingObject() {
+        String objectKey = "uploads/missing.jpg";
+        when(photoRepository.existsByObjectKey(objectKey)).thenReturn(false);
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenThrow(NoSuchKeyException.builder().build());
+
+        assertThrows(IllegalArgumentException.class, () ->
+            photoService.finalizeUpload(new PhotoFinalizeRequest(objectKey, "missing.jpg", null, null, galleryId)));
+
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void generateVariants() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        photo.setVersions(new HashMap<>(Map.of("original", "original/key.jpg")));
+        photo.setStatus(PhotoStatus.PROCESSING);
+
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(baos.toByteArray()))));
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.existsById(photoId)).thenReturn(true);
+
+        photoService.generateVariants(photoId);
+
+        assertEquals(PhotoStatus.READY, photo.getStatus());
+        assertEquals("thumbs/" + photoId + "_thumb.jpg", photo.getVersions().get("thumbnail"));
+        assertEquals("variants/" + photoId + "_w320.jpg", photo.getVersions().get("w320"));
+        assertEquals("variants/" + photoId + "_w640.jpg", photo.getVersions().get("w640"));
+        assertFalse(photo.getVersions().containsKey("w1280"));
+        assertEquals("original/key.jpg", photo.getVersions().get("original"));
+        verify(s3Client, times(3)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoRepository, times(1)).saveAll(List.of(photo));
+    }
+
+    @Test
+    void generateVariantsWithAsyncClient() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        photo.setVersions(new HashMap<>(Map.of("original", "original/key.jpg")));
+        photo.setStatus(PhotoStatus.PROCESSING);
+
+        S3AsyncClient asyncClient = mock(S3AsyncClient.class);
+        when(s3AsyncClientProvider.getIfAvailable()).thenReturn(asyncClient);
+        Set<Thread> uploadThreads = ConcurrentHashMap.newKeySet();
+        when(asyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenAnswer(invocation -> {
+            uploadThreads.add(Thread.currentThread());
+            return CompletableFuture.completedFuture(PutObjectResponse.builder().build());
+        });
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(baos.toByteArray()))));
+        when(photoRepository.existsById(photoId)).thenReturn(true);
+
+        photoService.generateVariants(photoId);
+
+        assertFalse(uploadThreads.contains(Thread.currentThread()), "renditions should be encoded off the calling thread");
+
+        assertEquals(PhotoStatus.READY, photo.getStatus());
+        assertEquals("thumbs/" + photoId + "_thumb.jpg", photo.getVersions().get("thumbnail"));
+        assertEquals("variants/" + photoId + "_w640.jpg", photo.getVersions().get("w640"));
+        verify(asyncClient, times(3)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void generateVariantsWithFailedAsyncUpload() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        photo.setStatus(PhotoStatus.PROCESSING);
+
+        S3AsyncClient asyncClient = mock(S3AsyncClient.class);
+        when(s3AsyncClientProvider.getIfAvailable()).thenReturn(asyncClient);
+        when(asyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("slow down").statusCode(503).build()));
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(baos.toByteArray()))));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> photoService.generateVariants(photoId));
+
+        assertTrue(exception.getMessage().startsWith("Failed to upload to S3"));
+        assertEquals(PhotoStatus.PROCESSING, photo.getStatus());
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void getPhotosExposesSrcset() {
+        photo.setVersions(Map.of(
+            "original", "original/key.jpg",
+            "thumbnail", "thumbs/key_thumb.jpg",
+            "w640", "variants/key_w640.jpg",
+            "w320", "variants/key_w320.jpg"));
+
+        when(photoRepository.findByGalleryIdOrderBySortOrderAsc(galleryId)).thenReturn(List.of(photo));
+        when(s3UrlService.getPublicUrl(anyString())).thenAnswer(invocation -> "https://cdn/" + invocation.getArgument(0));
+
+        List<PhotoResponse> result = photoService.getPhotos(galleryId);
+
+        assertEquals("https://cdn/variants/key_w320.jpg 320w, https://cdn/variants/key_w640.jpg 640w, https://cdn/original/key.jpg 800w",
+            result.get(0).getSrcset());
+    }
+
+    @Test
+    void generateVariantsKeepsHeaderDimensions() throws IOException {
+        BufferedImage testImage = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        ReflectionTestUtils.setField(photoService, "variantWidths", List.of(320));
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(baos.toByteArray()))));
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.existsById(photoId)).thenReturn(true);
+
+        photoService.generateVariants(photoId);
+
+        assertEquals(2000, photo.getWidth());
+        assertEquals(1000, photo.getHeight());
+        assertTrue(photo.getVersions().containsKey("w320"));
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void readImageWithSubsampling() throws IOException {
+        BufferedImage testImage = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+        Path source = Files.createTempFile("photo-service-test-", ".jpg");
+        try {
+            ImageIO.write(testImage, "jpg", source.toFile());
+
+            BufferedImage decoded = ReflectionTestUtils.invokeMethod(photoService, "readImage", source, 6);
+
+            assertNotNull(decoded);
+            assertEquals(334, decoded.getWidth());
+            assertEquals(167, decoded.getHeight());
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Test
+    void generateVariantsForPhotoDeletedWhileProcessing() throws IOException {
+        BufferedImage testImage = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(testImage, "jpg", baos);
+
+        photo.setContentHash("abc");
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(baos.toByteArray()))));
+        doReturn(PutObjectResponse.builder().build())
+            .when(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        when(photoRepository.findByContentHash("abc")).thenReturn(List.of());
+
+        photoService.generateVariants(photoId);
+
+        verify(storageCleanupService, times(1)).scheduleDeletion(eq("abc"), argThat(keys -> keys.size() == 3
+                && keys.contains("thumbs/abc_thumb.jpg") && keys.contains("variants/abc_w640.jpg")));
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void generateVariantsForDeletedPhoto() throws IOException {
+        when(photoRepository.findById(photoId)).thenReturn(Optional.empty());
+
+        photoService.generateVariants(photoId);
+
+        verify(s3Client, never()).getObject(any(GetObjectRequest.class));
         verify(photoRepository, never()).save(any(Photo.class));
     }
 
+    @Test
+    void markFailedLeavesReadyDuplicatesAlone() {
+        photo.setContentHash("abc");
+        photo.setStatus(PhotoStatus.PROCESSING);
+        var ready = Photo.builder().id(UUID.randomUUID()).contentHash("abc").status(PhotoStatus.READY).build();
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(photoRepository.findByContentHash("abc")).thenReturn(List.of(ready, photo));
+
+        assertTrue(photoService.markFailed(photoId));
+
+        assertEquals(PhotoStatus.FAILED, photo.getStatus());
+        assertEquals(PhotoStatus.READY, ready.getStatus());
+        verify(photoRepository, times(1)).saveAll(List.of(photo));
+    }
+
+    @Test
+    void uploadFileWithInvalidFormat() throws IOException {
+        MultipartFile upload = new MockMultipartFile("file", "test.txt", "text/plain", "not an image".getBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            photoService.uploadFile(upload, null, null, null);
+        });
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(photoRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void getPhotos() {
         Photo photo2 = Photo.builder()
@@ -152,13 +682,40 @@ class PhotoServiceTest {
     @Test
     void deletePhoto() {
         when(photoRepository.findById(photoId)).thenReturn(java.util.Optional.of(photo));
-        when(s3Client.deleteObject(any(DeleteObjectRequest.class)))
-            .thenReturn(DeleteObjectResponse.builder().build());
         doNothing().when(photoRepository).deleteById(photoId);
 
         photoService.deletePhoto(photoId);
 
-        verify(s3Client, atLeast(2)).deleteObject(any(DeleteObjectRequest.class));
+        verify(storageCleanupService, times(1)).scheduleDeletion(null, Set.of("original/key.jpg", "thumbs/key_thumb.jpg"));
+        verify(photoRepository, times(1)).deleteById(photoId);
+        verify(contentVersions, times(1)).bump(ContentVersions.GALLERIES);
+        verify(contentVersions, times(1)).bump(ContentVersions.gallery(galleryId));
+    }
+
+    @Test
+    void deletePhotoWithSharedContent() {
+        photo.setContentHash("abc");
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(photoContentRepository.findRefCount("abc")).thenReturn(Optional.of(1));
+
+        photoService.deletePhoto(photoId);
+
+        verify(photoContentRepository, times(1)).release("abc");
+        verify(photoContentRepository, never()).deleteById(anyString());
+        verify(storageCleanupService, never()).scheduleDeletion(any(), any());
+        verify(photoRepository, times(1)).deleteById(photoId);
+    }
+
+    @Test
+    void deletePhotoReleasesLastReference() {
+        photo.setContentHash("abc");
+        when(photoRepository.findById(photoId)).thenReturn(Optional.of(photo));
+        when(photoContentRepository.findRefCount("abc")).thenReturn(Optional.of(0));
+
+        photoService.deletePhoto(photoId);
+
+        verify(photoContentRepository, times(1)).deleteById("abc");
+        verify(storageCleanupService, times(1)).scheduleDeletion("abc", Set.of("original/key.jpg", "thumbs/key_thumb.jpg"));
         verify(photoRepository, times(1)).deleteById(photoId);
     }
 
@@ -170,7 +727,7 @@ class PhotoServiceTest {
             photoService.deletePhoto(photoId);
         });
 
-        verify(s3Client, never()).deleteObject(any(DeleteObjectRequest.class));
+        verify(storageCleanupService, never()).scheduleDeletion(any(), any());
         verify(photoRepository, never()).deleteById(any());
     }
 
@@ -192,13 +749,41 @@ class PhotoServiceTest {
 
         when(photoRepository.findByGalleryIdOrderBySortOrderAsc(galleryId))
             .thenReturn(List.of(photo, photo2));
-        when(s3Client.deleteObject(any(DeleteObjectRequest.class)))
-            .thenReturn(DeleteObjectResponse.builder().build());
 
         photoService.deletePhotosByGalleryId(galleryId);
 
-        verify(s3Client, times(4)).deleteObject(any(DeleteObjectRequest.class));
-        verify(photoRepository, times(1)).deleteAll(anyList());
+        verify(storageCleanupService, times(1)).scheduleDeletion(null, Set.of("original/key.jpg", "thumbs/key_thumb.jpg"));
+        verify(storageCleanupService, times(1)).scheduleDeletion(null, Set.of("original/key2.jpg", "thumbs/key2_thumb.jpg"));
+        verify(photoRepository, times(1)).deleteByGalleryId(galleryId);
+        verify(photoContentRepository, never()).releaseByGalleryId(any());
+    }
+
+    @Test
+    void deletePhotosByGalleryIdKeepsSharedContent() {
+        Photo shared = Photo.builder()
+            .id(UUID.randomUUID())
+            .objectKey("original/shared.jpg")
+            .bucket(bucketName)
+            .originalName("shared.jpg")
+            .contentType("image/jpeg")
+            .contentHash("shared")
+            .versions(Map.of("original", "original/shared.jpg"))
+            .galleryId(galleryId)
+            .build();
+        photo.setContentHash("released");
+
+        when(photoRepository.findByGalleryIdOrderBySortOrderAsc(galleryId))
+            .thenReturn(List.of(photo, shared));
+        when(photoContentRepository.findUnreferenced(Set.of("released", "shared")))
+            .thenReturn(List.of("released"));
+
+        photoService.deletePhotosByGalleryId(galleryId);
+
+        verify(photoContentRepository, times(1)).releaseByGalleryId(galleryId);
+        verify(photoContentRepository, times(1)).deleteAllByIdInBatch(Set.of("released"));
+        verify(storageCleanupService, times(1)).scheduleDeletion("released", Set.of("original/key.jpg", "thumbs/key_thumb.jpg"));
+        verify(storageCleanupService, never()).scheduleDeletion(eq("shared"), any());
+        verify(photoRepository, times(1)).deleteByGalleryId(galleryId);
     }
 
     @Test
@@ -208,7 +793,7 @@ class PhotoServiceTest {
 
         photoService.deletePhotosByGalleryId(galleryId);
 
-        verify(s3Client, never()).deleteObject(any(DeleteObjectRequest.class));
-        verify(photoRepository, times(1)).deleteAll(anyList());
+        verify(storageCleanupService, never()).scheduleDeletion(any(), any());
+        verify(photoRepository, never()).deleteByGalleryId(any());
     }
 }
@@ -0,0 +1,172 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.BlockRequest;
+import de.dsm.backend.models.dto.BlocksByCategoryResponse;
+import de.dsm.backend.models.entity.Block;
+import de.dsm.backend.models.entity.ReenactmentCategory;
+import de.dsm.backend.repositories.BlockRepository;
+import de.dsm.backend.repositories.ReenactmentCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReenactmentServiceTest {
+
+    @Mock
+    private BlockRepository blockRepository;
+
+    @Mock
+    private ReenactmentCategoryRepository categoryRepository;
+
+    @Mock
+    private PhotoService photoService;
+
+    @Mock
+    private S3UrlService s3UrlService;
+
+    @Mock
+    private ContentVersions contentVersions;
+
+    @InjectMocks
+    private ReenactmentService reenactmentService;
+
+    private ReenactmentCategory infantry;
+    private ReenactmentCategory cavalry;
+
+    @BeforeEach
+    void setUp() {
+        infantry = category("infantry", 1);
+        cavalry = category("cavalry", 2);
+    }
+
+    @Test
+    void getBlocksGroupedByCategory() {
+        List<Block> blocks = new ArrayList<>();
+        blocks.add(block("Line", infantry.getId(), 1));
+        blocks.add(block("Skirmishers", infantry.getId(), 2));
+        blocks.add(block("Hussars", cavalry.getId(), 1));
+        blocks.add(block("Camp", null, 1));
+
+        when(categoryRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(infantry, cavalry));
+        when(blockRepository.findAllByOrderBySortOrderAsc()).thenReturn(blocks);
+
+        List<BlocksByCategoryResponse> result = reenactmentService.getBlocksGroupedByCategory();
+
+        assertEquals(List.of("infantry", "cavalry", "other"), result.stream().map(BlocksByCategoryResponse::code).toList());
+        assertEquals(2, result.get(0).blocks().size());
+        assertEquals("infantry", result.get(0).blocks().get(1).categoryCode());
+        assertEquals("cavalry", result.get(1).blocks().get(0).categoryCode());
+        assertNull(result.get(2).blocks().get(0).categoryCode());
+    }
+
+    @Test
+    void getBlocksGroupedByCategoryQueryCountIsConstant() {
+        List<Block> blocks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            blocks.add(block("Block " + i, i % 2 == 0 ? infantry.getId() : cavalry.getId(), i));
+        }
+
+        when(categoryRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(infantry, cavalry));
+        when(blockRepository.findAllByOrderBySortOrderAsc()).thenReturn(blocks);
+
+        reenactmentService.getBlocksGroupedByCategory();
+
+        verify(categoryRepository, times(1)).findAllByOrderBySortOrderAsc();
+        verify(blockRepository, times(1)).findAllByOrderBySortOrderAsc();
+        verify(categoryRepository, never()).findById(any());
+        verifyNoMoreInteractions(categoryRepository, blockRepository);
+    }
+
+    @Test
+    void getBlocksGroupedByCategoryServesSnapshot() {
+        when(categoryRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(infantry));
+        when(blockRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(block("Line", infantry.getId(), 1)));
+
+        List<BlocksByCategoryResponse> first = reenactmentService.getBlocksGroupedByCategory();
+        List<BlocksByCategoryResponse> second = reenactmentService.getBlocksGroupedByCategory();
+
+        assertSame(first, second);
+        verify(categoryRepository, times(1)).findAllByOrderBySortOrderAsc();
+        verify(blockRepository, times(1)).findAllByOrderBySortOrderAsc();
+    }
+
+    @Test
+    void createBlockRebuildsSnapshot() {
+        Block line = block("Line", infantry.getId(), 1);
+        Block hussars = block("Hussars", infantry.getId(), 2);
+        when(categoryRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of(infantry));
+        when(blockRepository.findAllByOrderBySortOrderAsc())
+            .thenReturn(List.of(line))
+            .thenReturn(List.of(line, hussars));
+        when(blockRepository.save(any(Block.class))).thenReturn(hussars);
+
+        assertEquals(1, reenactmentService.getBlocksGroupedByCategory().get(0).blocks().size());
+
+        reenactmentService.createBlock(new BlockRequest("Hussars", null, infantry.getId(), 2, null));
+
+        assertEquals(2, reenactmentService.getBlocksGroupedByCategory().get(0).blocks().size());
+        assertEquals(2, reenactmentService.getBlocksGroupedByCategory().get(0).blocks().size());
+        verify(blockRepository, times(2)).findAllByOrderBySortOrderAsc();
+    }
+
+    @Test
+    void writeOnlyInvalidatesSnapshot() {
+        Block hussars = block("Hussars", infantry.getId(), 2);
+        when(blockRepository.save(any(Block.class))).thenReturn(hussars);
+
+        reenactmentService.createBlock(new BlockRequest("Hussars", null, infantry.getId(), 2, null));
+
+        verify(blockRepository, never()).findAllByOrderBySortOrderAsc();
+        verify(categoryRepository, never()).findAllByOrderBySortOrderAsc();
+        verify(contentVersions, times(1)).bump(ContentVersions.REENACTMENT);
+    }
+
+    @Test
+    void deleteCategoryRebuildsSnapshot() {
+        when(categoryRepository.findAllByOrderBySortOrderAsc())
+            .thenReturn(List.of(infantry, cavalry))
+            .thenReturn(List.of(infantry));
+        when(blockRepository.findAllByOrderBySortOrderAsc()).thenReturn(List.of());
+        when(categoryRepository.existsById(cavalry.getId())).thenReturn(true);
+
+        assertEquals(2, reenactmentService.getBlocksGroupedByCategory().size());
+
+        reenactmentService.deleteCategory(cavalry.getId());
+
+        assertEquals(1, reenactmentService.getBlocksGroupedByCategory().size());
+        verify(categoryRepository, times(2)).findAllByOrderBySortOrderAsc();
+    }
+
+    private ReenactmentCategory category(String code, int sortOrder) {
+        ReenactmentCategory category = new ReenactmentCategory();
+        ReflectionTestUtils.setField(category, "id", UUID.randomUUID());
+        category.setCode(code);
+        category.setNameDe(code);
+        category.setNameEn(code);
+        category.setNameFr(code);
+        category.setSortOrder(sortOrder);
+        return category;
+    }
+
+    private Block block(String title, UUID categoryId, int sortOrder) {
+        Block block = new Block();
+        ReflectionTestUtils.setField(block, "id", UUID.randomUUID());
+        block.setTitle(title);
+        block.setCategoryId(categoryId);
+        block.setSortOrder(sortOrder);
+        return block;
+    }
+}
@@ -0,0 +1,70 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.dto.SearchResultResponse;
+import de.dsm.backend.models.projections.SearchHit;
+import de.dsm.backend.repositories.SearchRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private SearchRepository searchRepository;
+
+    @InjectMocks
+    private SearchService searchService;
+
+    @Test
+    void searchUsesConfigurationOfRequestedLanguage() {
+        UUID galleryId = UUID.randomUUID();
+        SearchHit hit = new SearchHit("PHOTO", UUID.randomUUID(), galleryId, "Lager", "<b>Lager</b> am Fluss", 0.4);
+        when(searchRepository.search("french", "camp", 10, 0)).thenReturn(List.of(hit));
+
+        Page<SearchResultResponse> result = searchService.search("  camp ", "fr", PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("PHOTO", result.getContent().get(0).type());
+        assertEquals(galleryId, result.getContent().get(0).parentId());
+        verify(searchRepository, never()).count(any(), any());
+    }
+
+    @Test
+    void searchCountsWhenPageIsFull() {
+        SearchHit hit = new SearchHit("EVENT", UUID.randomUUID(), null, "Fest", "Fest", 0.1);
+        when(searchRepository.search("german", "fest", 1, 1)).thenReturn(List.of(hit));
+        when(searchRepository.count("german", "fest")).thenReturn(5L);
+
+        Page<SearchResultResponse> result = searchService.search("fest", "de", PageRequest.of(1, 1));
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(5, result.getTotalPages());
+    }
+
+    @Test
+    void searchWithBlankQueryReturnsEmptyPage() {
+        Page<SearchResultResponse> result = searchService.search(" ", "en", PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void searchRejectsUnsupportedLanguage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("camp", "ru", PageRequest.of(0, 10)));
+        verifyNoInteractions(searchRepository);
+    }
+}
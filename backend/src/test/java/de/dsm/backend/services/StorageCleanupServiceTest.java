@@ -0,0 +1,181 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.models.entity.StorageDeletion;
+import de.dsm.backend.repositories.PhotoContentRepository;
+import de.dsm.backend.repositories.StorageDeletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageCleanupServiceTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private StorageDeletionRepository storageDeletionRepository;
+
+    @Mock
+    private PhotoContentRepository photoContentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StorageCleanupService storageCleanupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storageCleanupService, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(storageCleanupService, "batchSize", 1000);
+        ReflectionTestUtils.setField(storageCleanupService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(storageCleanupService, "retryBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(storageCleanupService, "maxBackoff", Duration.ofHours(6));
+    }
+
+    @Test
+    void deleteObjectsInChunks() {
+        List<String> keys = IntStream.range(0, 2500).mapToObj(i -> "original/" + i + ".jpg").toList();
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenReturn(DeleteObjectsResponse.builder().build());
+
+        List<String> failed = storageCleanupService.deleteObjects(keys);
+
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client, times(3)).deleteObjects(captor.capture());
+        assertEquals(List.of(1000, 1000, 500), captor.getAllValues().stream()
+            .map(request -> request.delete().objects().size())
+            .toList());
+        assertEquals("test-bucket", captor.getValue().bucket());
+        assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    void deleteObjectsReportsFailedKeys() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("thumbs/b.jpg").code("AccessDenied").message("denied").build())
+                .build());
+
+        List<String> failed = storageCleanupService.deleteObjects(List.of("original/a.jpg", "thumbs/b.jpg", "original/a.jpg"));
+
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client, times(1)).deleteObjects(captor.capture());
+        assertEquals(2, captor.getValue().delete().objects().size());
+        assertEquals(List.of("thumbs/b.jpg"), failed);
+    }
+
+    @Test
+    void deleteObjectsReportsWholeChunkOnRequestFailure() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenThrow(S3Exception.builder().message("unavailable").statusCode(503).build());
+
+        List<String> failed = storageCleanupService.deleteObjects(List.of("original/a.jpg", "thumbs/b.jpg"));
+
+        assertEquals(List.of("original/a.jpg", "thumbs/b.jpg"), failed);
+    }
+
+    @Test
+    void deleteObjectsWithNoKeys() {
+        List<String> failed = storageCleanupService.deleteObjects(List.of());
+
+        assertTrue(failed.isEmpty());
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    void scheduleDeletionQueuesDistinctKeys() {
+        storageCleanupService.scheduleDeletion("abc", List.of("original/abc.jpg", "thumbs/abc_thumb.jpg", "original/abc.jpg"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StorageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(storageDeletionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(List.of("original/abc.jpg", "thumbs/abc_thumb.jpg"), captor.getValue().stream()
+            .map(StorageDeletion::getObjectKey)
+            .toList());
+        assertTrue(captor.getValue().stream().allMatch(deletion -> "abc".equals(deletion.getContentHash())));
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void processPendingDeletionsRemovesDeletedAndReschedulesFailed() {
+        StorageDeletion deleted = new StorageDeletion("original/a.jpg", "a");
+        StorageDeletion failed = new StorageDeletion("thumbs/b.jpg", "b");
+        when(storageDeletionRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(deleted, failed));
+        when(storageDeletionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("thumbs/b.jpg").code("InternalError").message("retry").build())
+                .build());
+
+        LocalDateTime before = LocalDateTime.now();
+        storageCleanupService.processPendingDeletions();
+
+        verify(storageDeletionRepository, times(1)).deleteReacquired();
+        verify(storageDeletionRepository, times(1)).deleteAllInBatch(List.of(deleted));
+        verify(storageDeletionRepository, times(1)).saveAll(List.of(failed));
+        assertEquals(1, failed.getAttempts());
+        assertEquals("Delete failed", failed.getLastError());
+        assertFalse(failed.getNextAttemptAt().isBefore(before.plusMinutes(1)));
+        assertTrue(failed.getNextAttemptAt().isBefore(before.plusMinutes(2)));
+    }
+
+    @Test
+    void processPendingDeletionsSparesContentReservedSinceClaim() {
+        StorageDeletion reserved = new StorageDeletion("original/a.jpg", "a");
+        StorageDeletion orphaned = new StorageDeletion("original/b.jpg", "b");
+        when(storageDeletionRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of(reserved, orphaned));
+        when(storageDeletionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(photoContentRepository.findExisting(List.of("a", "b"))).thenReturn(List.of("a"));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder().build());
+
+        storageCleanupService.processPendingDeletions();
+
+        InOrder inOrder = inOrder(photoContentRepository, s3Client);
+        inOrder.verify(photoContentRepository).lock("a");
+        inOrder.verify(photoContentRepository).lock("b");
+        inOrder.verify(photoContentRepository).findExisting(List.of("a", "b"));
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        inOrder.verify(s3Client).deleteObjects(captor.capture());
+        assertEquals(List.of("original/b.jpg"), captor.getValue().delete().objects().stream()
+            .map(ObjectIdentifier::key)
+            .toList());
+        verify(storageDeletionRepository, times(1)).deleteAllInBatch(List.of(reserved, orphaned));
+    }
+
+    @Test
+    void processPendingDeletionsWithNothingDue() {
+        when(storageDeletionRepository.findDue(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+        when(storageDeletionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        storageCleanupService.processPendingDeletions();
+
+        verifyNoInteractions(s3Client);
+        verify(storageDeletionRepository, never()).deleteAllInBatch(any());
+    }
+}
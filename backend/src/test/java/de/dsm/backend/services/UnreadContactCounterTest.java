@@ -0,0 +1,77 @@
+package de.dsm.backend.services;
+
+import de.dsm.backend.repositories.ContactRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadContactCounterTest {
+
+    @Mock
+    private ContactRepository contactRepository;
+
+    @InjectMocks
+    private UnreadContactCounter counter;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOnceAndThenServesFromMemory() {
+        when(contactRepository.countByReadFalse()).thenReturn(3L);
+
+        assertEquals(3, counter.get());
+        counter.increment();
+        counter.decrement();
+        counter.decrement();
+
+        assertEquals(2, counter.get());
+        verify(contactRepository, times(1)).countByReadFalse();
+    }
+
+    @Test
+    void adjustmentWaitsForCommit() {
+        when(contactRepository.countByReadFalse()).thenReturn(1L);
+        counter.get();
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.increment();
+        assertEquals(1, counter.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(2, counter.get());
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        when(contactRepository.countByReadFalse()).thenReturn(4L, 9L);
+        counter.get();
+
+        counter.reconcile();
+
+        assertEquals(9, counter.get());
+    }
+
+    @Test
+    void neverGoesNegative() {
+        when(contactRepository.countByReadFalse()).thenReturn(0L);
+        counter.get();
+
+        counter.decrement();
+
+        assertEquals(0, counter.get());
+    }
+}